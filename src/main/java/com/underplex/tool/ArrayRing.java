@@ -1,8 +1,15 @@
 package com.underplex.tool;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
 
 /** 
  * An implementation of {@code Ring<E>}.
@@ -17,9 +24,10 @@ public class ArrayRing<E> implements Ring<E>, Serializable {
 	/**
 	 * The roster can never be null.
 	 * <p>
-	 * This is implemented as an ArrayList because that makes it serializable.
+	 * This is transient because {@code writeObject} writes the elements directly, which is smaller and faster than writing the list itself.
+	 * Rings written before then, with the list as a field, can still be read.
 	 */
-	private final ArrayList<E> roster;
+	private transient ArrayList<E> roster;
 	
 	public ArrayRing(){
 		this.roster = new ArrayList<E>();
@@ -238,4 +246,72 @@ public class ArrayRing<E> implements Ring<E>, Serializable {
 	public final List<E> toList(){
 		return new ArrayList<E>(this.roster);
 	}
+	
+	/**
+	 * Adds the elements after checking them all against one hash set of the roster, then appends them to the roster in one step.
+	 * @see com.underplex.tool.Ring#addAll(Collection)
+	 */
+	@Override
+	public final boolean addAll(Collection<? extends E> elements){
+		Set<E> present = new HashSet<E>(roster);
+		List<E> added = new ArrayList<E>(elements.size());
+		for (E e : elements){
+			if (e == null){
+				throw new NullPointerException();
+			} else if (present.add(e)){
+				added.add(e);
+			}
+		}
+		return roster.addAll(added);
+	}
+	
+	/**
+	 * Removes matching elements in a single pass over the roster.
+	 * @see com.underplex.tool.Ring#removeIf(Predicate)
+	 */
+	@Override
+	public final boolean removeIf(Predicate<? super E> filter){
+		return roster.removeIf(filter);
+	}
+	
+	/**
+	 * Writes the size followed by each element in order.
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeInt(roster.size());
+		for (E e : roster){
+			out.writeObject(e);
+		}
+	}
+	
+	@SuppressWarnings("unchecked")
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		ObjectInputStream.GetField fields = in.readFields();
+		List<E> elements;
+		if (fields.getObjectStreamClass().getField("roster") != null){
+			// the older form, with the list written as a field
+			elements = (List<E>) fields.get("roster", null);
+			if (elements == null){
+				throw new IOException("missing roster");
+			}
+		} else {
+			int size = in.readInt();
+			if (size < 0){
+				throw new IOException("negative size");
+			}
+			elements = new ArrayList<E>(size);
+			for (int i = 0; i < size; i++){
+				elements.add((E) in.readObject());
+			}
+		}
+		this.roster = new ArrayList<E>(elements.size());
+		Set<E> seen = new HashSet<E>(elements.size() * 2);
+		for (E e : elements){
+			if (e == null || !seen.add(e)){
+				throw new IOException("null or duplicate element");
+			}
+			roster.add(e);
+		}
+	}
 }
@@ -0,0 +1,155 @@
+package com.underplex.tool;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.LongConsumer;
+
+/**
+ * Utility class with static methods for enumerating combinations of a pool of at most 64 elements as {@code long} bitmasks.
+ * <p>
+ * Elements are identified by their index in a {@code List}, and a combination is the mask with bit {@code i} set iff the element with index
+ * {@code i} is chosen. Stepping from one mask to the next takes a few arithmetic operations and allocates nothing, so millions of
+ * combinations can be enumerated and tested cheaply, turning only the interesting ones back into elements.
+ * <p>
+ * Masks of {@code k} bits from a pool of {@code n} elements are produced in increasing numerical order, starting at {@link #firstMask(int)}.
+ * The usual loop is:
+ * <pre>
+ * long mask = BitCombiner.firstMask(k);
+ * do {
+ *     ...
+ * } while ((mask = BitCombiner.nextMask(mask, n)) != 0);
+ * </pre>
+ * This also works for {@code k == 0}, whose only mask is 0.
+ * @see com.underplex.tool.Combiner
+ *
+ * @author Brandon Irvine
+ */
+public class BitCombiner {
+
+	/**
+	 * Largest number of elements a pool can have.
+	 */
+	public static final int MAX_POOL = 64;
+
+	private BitCombiner(){
+		// don't instantiate
+	}
+
+	/**
+	 * Returns the lowest mask with {@code k} bits set, which is the first combination of {@code k} elements.
+	 * @param k - number of elements chosen
+	 * @return mask of the {@code k} lowest bits
+	 * @throws IllegalArgumentException iff {@code k < 0 || k > 64}
+	 */
+	public static long firstMask(int k){
+		if (k < 0 || k > MAX_POOL){
+			throw new IllegalArgumentException();
+		}
+		return k == MAX_POOL ? -1L : (1L << k) - 1;
+	}
+
+	/**
+	 * Returns the next higher mask with the same number of bits set as {@code mask} and no bits at or above {@code n}, or 0 if there isn't one.
+	 * <p>
+	 * {@code mask} must itself have no bits at or above {@code n}.
+	 * @param mask - current combination
+	 * @param n - number of elements in the pool
+	 * @return next combination or 0
+	 */
+	public static long nextMask(long mask, int n){
+		if (mask == 0){
+			return 0;
+		}
+		// Gosper's hack: move the lowest run of set bits up by one, and its other bits back down to the bottom
+		long lowest = mask & -mask;
+		long ripple = mask + lowest;
+		if (ripple == 0 || (n < MAX_POOL && ripple >>> n != 0)){
+			return 0;
+		}
+		return ripple | (((ripple ^ mask) >>> 2) >>> Long.numberOfTrailingZeros(lowest));
+	}
+
+	/**
+	 * Performs {@code action} on every mask of {@code k} bits from a pool of {@code n} elements, in increasing order.
+	 * @param n - number of elements in the pool
+	 * @param k - number of elements chosen
+	 * @param action - action performed on each mask
+	 * @throws IllegalArgumentException iff {@code n < 0 || n > 64 || k < 0 || k > n}
+	 */
+	public static void forEachMask(int n, int k, LongConsumer action){
+		checkPool(n, k);
+		long mask = firstMask(k);
+		do {
+			action.accept(mask);
+		} while ((mask = nextMask(mask, n)) != 0);
+	}
+
+	/**
+	 * Returns the mask of the elements of {@code chosen} by their index in {@code pool}.
+	 * @param pool - pool of at most 64 elements
+	 * @param chosen - elements to include, all of which must be in {@code pool}
+	 * @return mask of the chosen elements
+	 * @throws IllegalArgumentException iff {@code pool} has more than 64 elements or any element of {@code chosen} isn't in it
+	 */
+	public static <T> long toMask(List<T> pool, Collection<? extends T> chosen){
+		if (pool.size() > MAX_POOL){
+			throw new IllegalArgumentException("pool larger than " + MAX_POOL);
+		}
+		long mask = 0;
+		for (T t : chosen){
+			int i = pool.indexOf(t);
+			if (i < 0){
+				throw new IllegalArgumentException("not in pool: " + t);
+			}
+			mask |= 1L << i;
+		}
+		return mask;
+	}
+
+	/**
+	 * Returns the elements of {@code pool} whose bits are set in {@code mask}, in index order.
+	 * @param pool - pool the mask refers to
+	 * @param mask - combination of indices, all less than {@code pool.size()}
+	 * @return new List of the chosen elements
+	 */
+	public static <T> List<T> toList(List<T> pool, long mask){
+		List<T> list = new ArrayList<T>(Long.bitCount(mask));
+		for (long m = mask; m != 0; m &= m - 1){
+			list.add(pool.get(Long.numberOfTrailingZeros(m)));
+		}
+		return list;
+	}
+
+	/**
+	 * Returns the elements of {@code pool} whose bits are set in {@code mask}, as a Set like those of {@link Combiner#chooseK(Set, int)}.
+	 * @param pool - pool the mask refers to
+	 * @param mask - combination of indices, all less than {@code pool.size()}
+	 * @return new Set of the chosen elements
+	 */
+	public static <T> Set<T> toSet(List<T> pool, long mask){
+		return new HashSet<T>(toList(pool, mask));
+	}
+
+	/**
+	 * Returns the indices whose bits are set in {@code mask}, in increasing order.
+	 * @param mask - combination of indices
+	 * @return new array of indices
+	 */
+	public static int[] toIndices(long mask){
+		int[] indices = new int[Long.bitCount(mask)];
+		int j = 0;
+		for (long m = mask; m != 0; m &= m - 1){
+			indices[j++] = Long.numberOfTrailingZeros(m);
+		}
+		return indices;
+	}
+
+	private static void checkPool(int n, int k){
+		if (n < 0 || n > MAX_POOL || k < 0 || k > n){
+			throw new IllegalArgumentException();
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package com.underplex.tool;
+
+import java.util.List;
+
+/**
+ * Implementing classes describe an optimization over combinations for {@link Combiner#bestK(List, int, BranchAndBound)} to search.
+ * <p>
+ * The search builds combinations one element at a time, in index order of the pool, and asks about each partial combination before going
+ * further. A partial combination that isn't feasible, or whose bound can't beat the best score found so far, is abandoned along with every
+ * combination that would have extended it. The lists passed are views of the search's working state, valid only during the call.
+ */
+public interface BranchAndBound<T> {
+
+	/**
+	 * Returns {@code true} iff some combination extending {@code partial} might be acceptable, such as one still within a budget.
+	 * <p>
+	 * This must stay {@code false} for every extension of a partial combination it's {@code false} for. By default everything is feasible.
+	 * @param partial - elements chosen so far
+	 * @return {@code false} iff no extension of {@code partial} need be considered
+	 */
+	default boolean feasible(List<T> partial){
+		return true;
+	}
+
+	/**
+	 * Returns an upper bound on the score of any combination made of {@code partial} and further elements of {@code remaining}.
+	 * <p>
+	 * The tighter the bound, the more is pruned, but it must never be less than such a score or the best combination may be missed.
+	 * @param partial - elements chosen so far
+	 * @param remaining - elements that may still be chosen
+	 * @return upper bound on the score of any completion
+	 */
+	double bound(List<T> partial, List<T> remaining);
+
+	/**
+	 * Returns the score of a complete, feasible combination. Higher is better.
+	 * @param combination - elements chosen
+	 * @return score to maximize
+	 */
+	double score(List<T> combination);
+}
@@ -0,0 +1,519 @@
+package com.underplex.tool;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * An implementation of {@code Ring<E>} that stores its elements in a circular array together with the offset of the first element.
+ * <p>
+ * Changing which element is first only moves the offset, so {@code makeFirst} and {@code rotate} never copy or allocate, and
+ * {@code getFirst}, {@code getLast} and {@code get} are simple arithmetic on the offset. Adding or removing in the middle of the ring
+ * shifts whichever side of the array is shorter.
+ * <p>
+ * Finding an element by equality still scans the array, as in {@code ArrayRing}. Where that dominates, {@code HashRing} is the better choice.
+ * @see com.underplex.tool.Ring
+ *
+ * @author Brandon Irvine
+ */
+public class CircularArrayRing<E> implements Ring<E>, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final int DEFAULT_CAPACITY = 8;
+
+	/**
+	 * Backing array. Its length is always at least 1, and slots not holding an element are {@code null}.
+	 */
+	private transient Object[] elements;
+
+	/**
+	 * Position in {@code elements} where the stored block of elements starts. The block occupies {@code size} consecutive slots,
+	 * wrapping around the end of the array.
+	 */
+	private transient int base;
+
+	/**
+	 * Position within the block of the first element of this ring. Rotating the ring only changes this value.
+	 */
+	private transient int rotation;
+
+	private transient int size;
+
+	public CircularArrayRing(){
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates an empty ring with room for {@code initialCapacity} elements before its array needs to grow.
+	 * @param initialCapacity - the initial capacity of the ring
+	 * @throws IllegalArgumentException iff the capacity is negative
+	 */
+	public CircularArrayRing(int initialCapacity){
+		if (initialCapacity < 0){
+			throw new IllegalArgumentException();
+		}
+		this.elements = new Object[Math.max(1, initialCapacity)];
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#add(int, E)
+	 */
+	@Override
+	public final boolean add(int index, E element){
+		if ((index < 0 || index > size)){
+			throw new IndexOutOfBoundsException();
+		} else if (element == null){
+			throw new NullPointerException();
+		} else if (find(element) >= 0){
+			return false;
+		}
+		insert(index, element);
+		return true;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#addFirst(E)
+	 */
+	@Override
+	public final boolean addFirst(E element){
+		if (element == null){
+			throw new NullPointerException();
+		} else if (find(element) >= 0){
+			return false;
+		}
+		insert(0, element);
+		return true;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#addLast(E)
+	 */
+	@Override
+	public final boolean addLast(E element){
+		if (element == null){
+			throw new NullPointerException();
+		} else if (find(element) >= 0){
+			return false;
+		}
+		insert(size, element);
+		return true;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#makeFirst(E)
+	 */
+	@Override
+	public final boolean makeFirst(E element){
+		if (element == null){
+			throw new NullPointerException();
+		}
+		int i = find(element);
+		if (i < 0){
+			throw new IllegalArgumentException();
+		} else if (i != 0){
+			rotation = blockIndex(i);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Shifts which element is first by {@code distance} places along the ring, so that the element that had index {@code distance}
+	 * (taken modulo the size) now has index 0.
+	 * <p>
+	 * A negative distance rotates the other way. As with {@code makeFirst}, relative positions of elements never change.
+	 * <p>
+	 * This takes constant time regardless of the size of the ring.
+	 * @param distance - number of places to rotate
+	 * @return {@code true} iff the ordering of the ring changed
+	 */
+	public final boolean rotate(int distance){
+		if (size == 0){
+			return false;
+		}
+		int shift = distance % size;
+		if (shift < 0){
+			shift += size;
+		}
+		if (shift == 0){
+			return false;
+		}
+		rotation = blockIndex(shift);
+		return true;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#clear()
+	 */
+	@Override
+	public final void clear(){
+		for (int i = 0; i < size; i++){
+			elements[slot(i)] = null;
+		}
+		base = 0;
+		rotation = 0;
+		size = 0;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#getFirst()
+	 */
+	@Override
+	public final E getFirst(){
+		if (size == 0){
+			return null;
+		}
+		return elementAt(slot(0));
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#getLast()
+	 */
+	@Override
+	public final E getLast(){
+		if (size == 0){
+			return null;
+		}
+		return elementAt(slot(size - 1));
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#get(int)
+	 */
+	@Override
+	public final E get(int index){
+		if ((index < 0 || index >= size)){
+			throw new IndexOutOfBoundsException();
+		}
+		return elementAt(slot(index));
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#indexOf(E)
+	 */
+	@Override
+	public final int indexOf(E element){
+		return find(element);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#isEmpty()
+	 */
+	@Override
+	public final boolean isEmpty(){
+		return size == 0;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#next(E)
+	 */
+	@Override
+	public final E next(E previousElement){
+		if (previousElement == null){
+			throw new NullPointerException();
+		}
+		int i = find(previousElement);
+		if (i < 0){
+			return null;
+		}
+		return elementAt(slot(i == size - 1 ? 0 : i + 1));
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#previous(E)
+	 */
+	@Override
+	public final E previous(E nextElement){
+		if (nextElement == null){
+			throw new NullPointerException();
+		}
+		int i = find(nextElement);
+		if (i < 0){
+			return null;
+		}
+		return elementAt(slot(i == 0 ? size - 1 : i - 1));
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#remove(E)
+	 */
+	@Override
+	public final boolean remove(E element){
+		if (element == null){
+			throw new NullPointerException();
+		}
+		int i = find(element);
+		if (i < 0){
+			return false;
+		}
+		delete(i);
+		return true;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#contains(E)
+	 */
+	@Override
+	public final boolean contains(E element){
+		return find(element) >= 0;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#size()
+	 */
+	@Override
+	public final int size(){
+		return size;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#toList()
+	 */
+	@Override
+	public final List<E> toList(){
+		List<E> list = new ArrayList<E>(size);
+		for (int i = 0; i < size; i++){
+			list.add(elementAt(slot(i)));
+		}
+		return list;
+	}
+
+	/**
+	 * Adds the elements after checking them all against one hash set of this ring, then copies everything into a new array in one step.
+	 * <p>
+	 * The new array starts with the first element, so any rotation is undone in storage, though not in order.
+	 * @see com.underplex.tool.Ring#addAll(Collection)
+	 */
+	@Override
+	public final boolean addAll(Collection<? extends E> collection){
+		Set<Object> present = new HashSet<Object>(size * 2);
+		for (int b = 0; b < size; b++){
+			present.add(elements[blockSlot(b)]);
+		}
+		List<E> added = new ArrayList<E>(collection.size());
+		for (E e : collection){
+			if (e == null){
+				throw new NullPointerException();
+			} else if (present.add(e)){
+				added.add(e);
+			}
+		}
+		if (added.isEmpty()){
+			return false;
+		}
+		Object[] larger = new Object[Math.max(elements.length, size + added.size())];
+		for (int i = 0; i < size; i++){
+			larger[i] = elements[slot(i)];
+		}
+		for (int i = 0; i < added.size(); i++){
+			larger[size + i] = added.get(i);
+		}
+		this.elements = larger;
+		this.base = 0;
+		this.rotation = 0;
+		this.size += added.size();
+		return true;
+	}
+
+	/**
+	 * Removes matching elements in a single pass over the array, after testing every element so that a failing filter leaves the ring unchanged.
+	 * @see com.underplex.tool.Ring#removeIf(Predicate)
+	 */
+	@Override
+	public final boolean removeIf(Predicate<? super E> filter){
+		if (filter == null){
+			throw new NullPointerException();
+		}
+		BitSet doomed = new BitSet(size);
+		for (int b = 0; b < size; b++){
+			if (filter.test(elementAt(blockSlot(b)))){
+				doomed.set(b);
+			}
+		}
+		if (doomed.isEmpty()){
+			return false;
+		}
+		int kept = 0;
+		int keptBeforeFirst = 0;
+		for (int b = 0; b < size; b++){
+			if (!doomed.get(b)){
+				elements[blockSlot(kept)] = elements[blockSlot(b)];
+				kept++;
+			}
+			if (b == rotation - 1){
+				keptBeforeFirst = kept;
+			}
+		}
+		for (int b = kept; b < size; b++){
+			elements[blockSlot(b)] = null;
+		}
+		// the first element is the first one kept from the old first onward, wrapping to the start of the block if there is none
+		this.rotation = keptBeforeFirst < kept ? keptBeforeFirst : 0;
+		this.size = kept;
+		if (size == 0){
+			base = 0;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the position within the block of the element with the specified index.
+	 */
+	private int blockIndex(int index){
+		int b = rotation + index;
+		return b >= size ? b - size : b;
+	}
+
+	/**
+	 * Returns the position in the backing array of the element with the specified index.
+	 */
+	private int slot(int index){
+		return blockSlot(blockIndex(index));
+	}
+
+	/**
+	 * Returns the position in the backing array of the specified position within the stored block.
+	 */
+	private int blockSlot(int blockIndex){
+		int s = base + blockIndex;
+		return s >= elements.length ? s - elements.length : s;
+	}
+
+	@SuppressWarnings("unchecked")
+	private E elementAt(int slot){
+		return (E) elements[slot];
+	}
+
+	/**
+	 * Returns the index of the element, or -1 if it isn't present or is {@code null}.
+	 * <p>
+	 * The block is scanned in storage order, which is the same work however the ring has been rotated.
+	 */
+	private int find(Object element){
+		if (element != null){
+			for (int b = 0; b < size; b++){
+				if (element.equals(elements[blockSlot(b)])){
+					return b >= rotation ? b - rotation : b - rotation + size;
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Inserts the element at the specified index. Both arguments must already have been checked.
+	 * <p>
+	 * The element goes into the block just before whatever element will follow it, and whichever side of the block is shorter is shifted to make room.
+	 */
+	private void insert(int index, E element){
+		if (size == elements.length){
+			grow();
+		}
+		int b = rotation + index;
+		if (b > size){
+			b -= size;
+		}
+		if (b < size - b){
+			// move the start of the block back one slot
+			base = base == 0 ? elements.length - 1 : base - 1;
+			for (int i = 0; i < b; i++){
+				elements[blockSlot(i)] = elements[blockSlot(i + 1)];
+			}
+		} else {
+			// move the end of the block forward one slot
+			for (int i = size; i > b; i--){
+				elements[blockSlot(i)] = elements[blockSlot(i - 1)];
+			}
+		}
+		elements[blockSlot(b)] = element;
+		size++;
+		if (index == 0){
+			rotation = b;
+		} else if (rotation >= b && size > 1){
+			rotation++;
+		}
+	}
+
+	/**
+	 * Removes the element at the specified index, closing the gap from whichever side of the block is shorter.
+	 */
+	private void delete(int index){
+		int b = rotation + index;
+		if (b >= size){
+			b -= size;
+		}
+		if (b < size - 1 - b){
+			for (int i = b; i > 0; i--){
+				elements[blockSlot(i)] = elements[blockSlot(i - 1)];
+			}
+			elements[base] = null;
+			base = blockSlot(1);
+		} else {
+			for (int i = b; i < size - 1; i++){
+				elements[blockSlot(i)] = elements[blockSlot(i + 1)];
+			}
+			elements[blockSlot(size - 1)] = null;
+		}
+		size--;
+		if (size == 0){
+			base = 0;
+			rotation = 0;
+		} else if (rotation > b){
+			rotation--;
+		} else if (rotation == b && b == size){
+			rotation = 0;
+		}
+	}
+
+	/**
+	 * Doubles the backing array, moving the block so it starts at position 0.
+	 */
+	private void grow(){
+		Object[] larger = new Object[elements.length * 2];
+		for (int b = 0; b < size; b++){
+			larger[b] = elements[blockSlot(b)];
+		}
+		elements = larger;
+		base = 0;
+	}
+
+	/**
+	 * Writes the size followed by each element in order, so unused slots and the current offset are never written.
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeInt(size);
+		for (int i = 0; i < size; i++){
+			out.writeObject(elements[slot(i)]);
+		}
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		int length = in.readInt();
+		if (length < 0){
+			throw new IOException("negative size");
+		}
+		this.elements = new Object[Math.max(DEFAULT_CAPACITY, length)];
+		Set<Object> seen = new HashSet<Object>(length * 2);
+		for (int i = 0; i < length; i++){
+			Object element = in.readObject();
+			if (element == null || !seen.add(element)){
+				throw new IOException("null or duplicate element");
+			}
+			elements[i] = element;
+		}
+		this.base = 0;
+		this.rotation = 0;
+		this.size = length;
+	}
+}
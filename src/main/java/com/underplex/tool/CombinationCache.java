@@ -0,0 +1,212 @@
+package com.underplex.tool;
+
+import java.nio.IntBuffer;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Opt-in cache of results from {@code Combiner}, for code that asks for the same combinations again and again.
+ * <p>
+ * Results are kept in least-recently-used order and weighed by how much they hold, and the least recently used are dropped whenever the
+ * total weight would go over the cache's bound. A result heavier than the bound on its own is returned without being cached. Methods are
+ * synchronized, so one cache can be shared between threads, though a result is built while holding the lock.
+ * <p>
+ * There are two forms of result. {@link #chooseK(Set, int)} caches the full Set of Sets, keyed by the contents of the pool and {@code k}.
+ * {@link #chooseKIndices(int, int)} caches just the indices of each combination, packed into one array and keyed only by the size of the pool
+ * and {@code k}, so any pool of the same size shares it at 4 bytes per chosen element.
+ * @see com.underplex.tool.Combiner
+ *
+ * @author Brandon Irvine
+ */
+public class CombinationCache {
+
+	private final long maxWeight;
+
+	private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true);
+
+	private long weight;
+
+	private long hits;
+
+	private long misses;
+
+	/**
+	 * Creates an empty cache that holds results with a total weight of at most {@code maxWeight}.
+	 * <p>
+	 * A full result weighs the number of combinations times {@code k}, that is, the number of element references it holds, and a packed result
+	 * weighs the length of its array. Either counts at least 1 per combination.
+	 * @param maxWeight - bound on the total weight of cached results
+	 * @throws IllegalArgumentException iff {@code maxWeight} is negative
+	 */
+	public CombinationCache(long maxWeight){
+		if (maxWeight < 0){
+			throw new IllegalArgumentException();
+		}
+		this.maxWeight = maxWeight;
+	}
+
+	/**
+	 * Returns the same combinations as {@link Combiner#chooseK(Set, int)}, from the cache if a pool with the same contents was asked for
+	 * with the same {@code k}.
+	 * <p>
+	 * The result and each Set in it are unmodifiable, since they may be shared with other callers.
+	 * @param among - pool to choose from
+	 * @param k - number of elements chosen
+	 * @return unmodifiable Set of unmodifiable Sets
+	 */
+	public synchronized <T> Set<Set<T>> chooseK(Set<T> among, int k){
+		Key key = new Key(among == null ? Collections.emptySet() : new HashSet<T>(among), k, false);
+		@SuppressWarnings("unchecked")
+		Set<Set<T>> cached = (Set<Set<T>>) lookup(key);
+		if (cached != null){
+			return cached;
+		}
+		Set<Set<T>> master = new HashSet<Set<T>>();
+		for (Iterator<Set<T>> it = Combiner.iterateK(among, k); it.hasNext(); ){
+			master.add(Collections.unmodifiableSet(it.next()));
+		}
+		Set<Set<T>> result = Collections.unmodifiableSet(master);
+		store(key, result, (long) master.size() * Math.max(1, k));
+		return result;
+	}
+
+	/**
+	 * Returns the indices of every combination of {@code k} indices less than {@code n}, from the cache if it was asked for before.
+	 * <p>
+	 * The buffer holds {@code k} indices per combination, in increasing order, with the combinations in the order of
+	 * {@link Combiner#iterateK(Set, int)}, so combination {@code r} starts at position {@code r * k}. It is read-only and
+	 * positioned at 0, and each call gets its own buffer over the shared array.
+	 * @param n - size of the pool
+	 * @param k - number of indices chosen
+	 * @return read-only buffer of packed indices
+	 * @throws IllegalArgumentException iff {@code n < 0 || k < 0 || k > n}
+	 * @throws ArithmeticException iff the indices wouldn't fit in one array
+	 */
+	public synchronized IntBuffer chooseKIndices(int n, int k){
+		Key key = new Key(n, k, true);
+		int[] packed = (int[]) lookup(key);
+		if (packed == null){
+			long count = Combiner.countK(n, k);
+			packed = new int[Math.toIntExact(Math.multiplyExact(count, k))];
+			if (k > 0){
+				int[] c = KCombinationIterator.first(k);
+				int p = 0;
+				do {
+					System.arraycopy(c, 0, packed, p, k);
+					p += k;
+				} while (KCombinationIterator.advance(c, n));
+			}
+			store(key, packed, Math.max(count, packed.length));
+		}
+		return IntBuffer.wrap(packed).asReadOnlyBuffer();
+	}
+
+	/**
+	 * Returns the total weight of the results in the cache.
+	 * @return total weight
+	 */
+	public synchronized long weight(){
+		return weight;
+	}
+
+	/**
+	 * Returns the number of results in the cache.
+	 * @return number of results
+	 */
+	public synchronized int size(){
+		return entries.size();
+	}
+
+	/**
+	 * Returns the number of requests answered from the cache.
+	 * @return number of hits
+	 */
+	public synchronized long hits(){
+		return hits;
+	}
+
+	/**
+	 * Returns the number of requests that had to be computed.
+	 * @return number of misses
+	 */
+	public synchronized long misses(){
+		return misses;
+	}
+
+	/**
+	 * Removes every result from the cache.
+	 */
+	public synchronized void clear(){
+		entries.clear();
+		weight = 0;
+	}
+
+	private Object lookup(Key key){
+		Entry e = entries.get(key);
+		if (e == null){
+			misses++;
+			return null;
+		}
+		hits++;
+		return e.value;
+	}
+
+	private void store(Key key, Object value, long w){
+		if (w > maxWeight){
+			return;
+		}
+		entries.put(key, new Entry(value, w));
+		weight += w;
+		Iterator<Entry> it = entries.values().iterator();
+		while (weight > maxWeight){
+			Entry eldest = it.next();
+			it.remove();
+			weight -= eldest.weight;
+		}
+	}
+
+	private static final class Key {
+
+		private final Object pool;
+
+		private final int k;
+
+		private final boolean packed;
+
+		private Key(Object pool, int k, boolean packed){
+			this.pool = pool;
+			this.k = k;
+			this.packed = packed;
+		}
+
+		@Override
+		public boolean equals(Object o){
+			if (!(o instanceof Key)){
+				return false;
+			}
+			Key other = (Key) o;
+			return k == other.k && packed == other.packed && pool.equals(other.pool);
+		}
+
+		@Override
+		public int hashCode(){
+			return (pool.hashCode() * 31 + k) * 2 + (packed ? 1 : 0);
+		}
+	}
+
+	private static final class Entry {
+
+		private final Object value;
+
+		private final long weight;
+
+		private Entry(Object value, long weight){
+			this.value = value;
+			this.weight = weight;
+		}
+	}
+}
@@ -0,0 +1,385 @@
+package com.underplex.tool;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Combinations written to a file as packed indices, so that more of them can be kept than would fit on the heap and gone over any number
+ * of times.
+ * <p>
+ * Each combination is a record with one index per element chosen, written as a single byte when every index is under 256, two bytes when
+ * under 65536, and four bytes otherwise. The file starts with a 16 byte header of the width of an index, the number of indices per record
+ * and the number of records. Records are written once through a buffer and read back through memory-mapped regions of the file, so going
+ * over them costs no heap beyond the combination being looked at. A file written earlier can be opened again with
+ * {@link #openK(Set, int, Path)} or {@link #openOneFromEach(Collection, Path)}, which check the header against the elements given.
+ * <p>
+ * A combination is given as a List of elements, in the order of the indices in its record. For {@link #chooseK(Set, int, Path)} that's
+ * the order of the pool; {@code new HashSet<T>(combination)} gives the Sets of {@link Combiner#chooseK(Set, int)}.
+ * @see com.underplex.tool.Combiner
+ *
+ * @author Brandon Irvine
+ */
+public final class CombinationFile<T> implements Iterable<List<T>>, Closeable {
+
+	private static final int HEADER_BYTES = 16;
+
+	private static final int BUFFER_BYTES = 1 << 16;
+
+	/**
+	 * Options for each position of a record: the pool, repeated, for combinations of k, or one group each for choosing one from each.
+	 */
+	private final Object[][] options;
+
+	private final int width;
+
+	private final long count;
+
+	private final FileChannel channel;
+
+	private CombinationFile(Object[][] options, int width, long count, FileChannel channel){
+		this.options = options;
+		this.width = width;
+		this.count = count;
+		this.channel = channel;
+	}
+
+	/**
+	 * Writes every combination of {@code k} elements from {@code among} to the file at {@code path}, replacing anything already there, and
+	 * returns the combinations ready to go over.
+	 * <p>
+	 * Combinations are written in the order of {@link Combiner#iterateK(Set, int)}, with the same single empty combination in the same four
+	 * conditions as {@link Combiner#chooseK(Set, int)}.
+	 * @param among - pool to choose from
+	 * @param k - number of elements chosen
+	 * @param path - file to write
+	 * @return combinations, which must be closed when no longer needed
+	 * @throws IOException if the file can't be written
+	 * @throws ArithmeticException iff there are more combinations than fit in a {@code long}
+	 */
+	public static <T> CombinationFile<T> chooseK(Set<T> among, int k, Path path) throws IOException {
+		Object[][] options = kOptions(among, k);
+		Object[] pool = options.length == 0 ? new Object[0] : options[0];
+		long count = KCombinationIterator.binomial(pool.length, options.length);
+		FileChannel channel = create(path, options, count);
+		int[] c = KCombinationIterator.first(options.length);
+		try {
+			write(channel, options, count, c, () -> KCombinationIterator.advance(c, pool.length));
+		} catch (IOException | RuntimeException e){
+			channel.close();
+			throw e;
+		}
+		return new CombinationFile<T>(options, widthOf(options), count, channel);
+	}
+
+	/**
+	 * Writes every way of choosing exactly 1 element from each of the collections in {@code among} to the file at {@code path}, replacing
+	 * anything already there, and returns the choices ready to go over.
+	 * <p>
+	 * Choices are written in the order of {@link Combiner#iterateOneFromEach(Collection)}, with one element per non-empty collection.
+	 * @param among - collections to choose from
+	 * @param path - file to write
+	 * @return choices, which must be closed when no longer needed
+	 * @throws IOException if the file can't be written
+	 * @throws ArithmeticException iff there are more choices than fit in a {@code long}
+	 */
+	public static <T> CombinationFile<T> chooseOneFromEach(Collection<? extends Collection<T>> among, Path path) throws IOException {
+		Object[][] options = groupOptions(among);
+		long count = ProductIterator.count(options);
+		FileChannel channel = create(path, options, count);
+		int[] digits = new int[options.length];
+		try {
+			write(channel, options, count, digits, () -> ProductIterator.advance(digits, options));
+		} catch (IOException | RuntimeException e){
+			channel.close();
+			throw e;
+		}
+		return new CombinationFile<T>(options, widthOf(options), count, channel);
+	}
+
+	/**
+	 * Opens a file written by {@link #chooseK(Set, int, Path)} to go over its combinations again.
+	 * <p>
+	 * Records hold only indices, so {@code among} must hold the same elements as when the file was written, iterating in the same order.
+	 * @param among - pool the combinations were chosen from
+	 * @param k - number of elements chosen
+	 * @param path - file to read
+	 * @return combinations, which must be closed when no longer needed
+	 * @throws IOException if the file can't be read, or its header doesn't match {@code among} and {@code k}
+	 * @throws ArithmeticException iff there are more combinations than fit in a {@code long}
+	 */
+	public static <T> CombinationFile<T> openK(Set<T> among, int k, Path path) throws IOException {
+		Object[][] options = kOptions(among, k);
+		long count = KCombinationIterator.binomial(options.length == 0 ? 0 : options[0].length, options.length);
+		return open(path, options, count);
+	}
+
+	/**
+	 * Opens a file written by {@link #chooseOneFromEach(Collection, Path)} to go over its choices again.
+	 * <p>
+	 * Records hold only indices, so {@code among} must hold the same collections as when the file was written, each iterating in the same
+	 * order.
+	 * @param among - collections the choices were made from
+	 * @param path - file to read
+	 * @return choices, which must be closed when no longer needed
+	 * @throws IOException if the file can't be read, or its header doesn't match {@code among}
+	 * @throws ArithmeticException iff there are more choices than fit in a {@code long}
+	 */
+	public static <T> CombinationFile<T> openOneFromEach(Collection<? extends Collection<T>> among, Path path) throws IOException {
+		Object[][] options = groupOptions(among);
+		return open(path, options, ProductIterator.count(options));
+	}
+
+	/**
+	 * Returns the number of combinations in the file.
+	 * @return number of combinations
+	 */
+	public long size(){
+		return count;
+	}
+
+	/**
+	 * Returns the number of elements in each combination.
+	 * @return elements per combination
+	 */
+	public int combinationSize(){
+		return options.length;
+	}
+
+	/**
+	 * Returns an Iterator over the combinations in the file, in the order they were written. Each is a new List.
+	 */
+	@Override
+	public Iterator<List<T>> iterator(){
+		Records records = new Records();
+		return new Iterator<List<T>>(){
+
+			@Override
+			public boolean hasNext(){
+				return records.hasNext();
+			}
+
+			@Override
+			public List<T> next(){
+				return toList(records.next());
+			}
+		};
+	}
+
+	/**
+	 * Returns a sequential Stream of the combinations in the file, in the order they were written.
+	 */
+	public Stream<List<T>> stream(){
+		return StreamSupport.stream(Spliterators.spliterator(iterator(), count,
+				Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+	}
+
+	/**
+	 * Performs {@code action} on the indices of each combination in the file, in the order they were written.
+	 * <p>
+	 * The same array is passed each time, so nothing is allocated per combination. The action mustn't change the array, and must copy it
+	 * to keep it.
+	 * @param action - action performed on the indices of each combination
+	 */
+	public void forEachIndices(Consumer<int[]> action){
+		Records records = new Records();
+		while (records.hasNext()){
+			action.accept(records.next());
+		}
+	}
+
+	/**
+	 * Closes the file. Iterators already made may carry on over the regions they have mapped, but nothing more can be read.
+	 */
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<T> toList(int[] indices){
+		Object[] elements = new Object[indices.length];
+		for (int i = 0; i < indices.length; i++){
+			elements[i] = options[i][indices[i]];
+		}
+		return (List<T>) Arrays.asList(elements);
+	}
+
+	/**
+	 * Reads records in order, mapping the file one region at a time and reusing one array of indices.
+	 */
+	private final class Records {
+
+		private final int[] indices = new int[options.length];
+
+		private final int recordBytes = width * options.length;
+
+		private long next;
+
+		/**
+		 * Mapped region holding records from {@code next} on, or {@code null} if the next region hasn't been mapped yet.
+		 */
+		private ByteBuffer region;
+
+		boolean hasNext(){
+			return next < count;
+		}
+
+		int[] next(){
+			if (next >= count){
+				throw new NoSuchElementException();
+			}
+			if (recordBytes > 0 && (region == null || !region.hasRemaining())){
+				map();
+			}
+			for (int i = 0; i < indices.length; i++){
+				indices[i] = width == 1 ? region.get() & 0xff : width == 2 ? region.getShort() & 0xffff : region.getInt();
+			}
+			next++;
+			return indices;
+		}
+
+		private void map(){
+			// as many whole records as fit in one mapping
+			long records = Math.min(count - next, Integer.MAX_VALUE / recordBytes);
+			try {
+				region = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + next * recordBytes, records * recordBytes);
+			} catch (IOException e){
+				throw new IllegalStateException("can't read " + channel, e);
+			}
+		}
+	}
+
+	/**
+	 * Returns the options for combinations of {@code k} from {@code among}: none in the four conditions giving a single empty combination.
+	 */
+	private static Object[][] kOptions(Set<?> among, int k){
+		Object[] pool = among == null ? new Object[0] : among.toArray();
+		if (pool.length == 0 || k <= 0 || k > pool.length){
+			k = 0;
+		}
+		Object[][] options = new Object[k][];
+		Arrays.fill(options, pool);
+		return options;
+	}
+
+	/**
+	 * Returns the options for choosing one from each collection in {@code among}: one group for each non-empty collection.
+	 */
+	private static Object[][] groupOptions(Collection<? extends Collection<?>> among){
+		List<Object[]> groups = new ArrayList<Object[]>();
+		if (among != null){
+			for (Collection<?> c : among){
+				if (!c.isEmpty()){
+					groups.add(c.toArray());
+				}
+			}
+		}
+		return groups.toArray(new Object[groups.size()][]);
+	}
+
+	/**
+	 * Returns the number of bytes needed for each index into {@code options}.
+	 */
+	private static int widthOf(Object[][] options){
+		int largest = 0;
+		for (Object[] o : options){
+			largest = Math.max(largest, o.length);
+		}
+		return largest <= 1 << 8 ? 1 : largest <= 1 << 16 ? 2 : 4;
+	}
+
+	/**
+	 * Creates the file, writes the header and returns the channel positioned after it.
+	 */
+	private static FileChannel create(Path path, Object[][] options, long count) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+		header.putInt(widthOf(options)).putInt(options.length).putLong(count).flip();
+		drain(channel, header);
+		return channel;
+	}
+
+	/**
+	 * Opens the file, checking its header and length against {@code options} and {@code count}.
+	 */
+	private static <T> CombinationFile<T> open(Path path, Object[][] options, long count) throws IOException {
+		int width = widthOf(options);
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+			while (header.hasRemaining()){
+				if (channel.read(header) < 0){
+					throw new IOException("missing header in " + path);
+				}
+			}
+			header.flip();
+			int writtenWidth = header.getInt();
+			int writtenLength = header.getInt();
+			long writtenCount = header.getLong();
+			if (writtenWidth != width || writtenLength != options.length || writtenCount != count){
+				throw new IOException("header of " + path + " is for " + writtenCount + " records of " + writtenLength + " indices of "
+						+ writtenWidth + " bytes, not " + count + " of " + options.length + " of " + width);
+			}
+			if (channel.size() != HEADER_BYTES + count * width * options.length){
+				throw new IOException("wrong length for " + path);
+			}
+		} catch (IOException | RuntimeException e){
+			channel.close();
+			throw e;
+		}
+		return new CombinationFile<T>(options, width, count, channel);
+	}
+
+	/**
+	 * Writes {@code count} records, starting with {@code indices} and moving on with {@code advance}, which changes them in place.
+	 */
+	private static void write(FileChannel channel, Object[][] options, long count, int[] indices, BooleanSupplier advance)
+			throws IOException {
+		int width = widthOf(options);
+		int recordBytes = width * indices.length;
+		ByteBuffer buffer = ByteBuffer.allocateDirect(Math.max(BUFFER_BYTES, recordBytes));
+		for (long r = 0; r < count; r++){
+			if (buffer.remaining() < recordBytes){
+				buffer.flip();
+				drain(channel, buffer);
+				buffer.clear();
+			}
+			for (int i : indices){
+				if (width == 1){
+					buffer.put((byte) i);
+				} else if (width == 2){
+					buffer.putShort((short) i);
+				} else {
+					buffer.putInt(i);
+				}
+			}
+			advance.getAsBoolean();
+		}
+		buffer.flip();
+		drain(channel, buffer);
+	}
+
+	private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()){
+			channel.write(buffer);
+		}
+	}
+}
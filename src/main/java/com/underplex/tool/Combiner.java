@@ -1,9 +1,20 @@
 package com.underplex.tool;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class Combiner {
 
@@ -36,6 +47,171 @@ public class Combiner {
 		return master;
 	}
 	
+	/**
+	 * Returns an Iterator over every combination of <code>k</code> elements from <code>among</code>, producing one combination at a time.
+	 * <p>
+	 * This gives the same combinations as {@link #chooseK(Set, int)}, including a single empty set in the same four conditions, but never holds
+	 * more than one of them. Each combination is a new Set, so it can be kept or dropped as the caller likes. The iteration order of
+	 * <code>among</code> determines the order of the combinations, and <code>among</code> shouldn't change while iterating.
+	 */
+	public static <T> Iterator<Set<T>> iterateK(Set<T> among, int k){
+		if (among == null || among.isEmpty() || k <= 0 || k > among.size()){
+			return Collections.<Set<T>>singleton(new HashSet<T>()).iterator();
+		}
+		return new KCombinationIterator<T>(new ArrayList<T>(among), k);
+	}
+	
+	/**
+	 * Returns a sequential Stream of every combination of <code>k</code> elements from <code>among</code>, producing one combination at a time.
+	 * <p>
+	 * See {@link #iterateK(Set, int)}.
+	 */
+	public static <T> Stream<Set<T>> streamK(Set<T> among, int k){
+		return streamK(among, k, false);
+	}
+	
+	/**
+	 * Returns a Stream of every combination of <code>k</code> elements from <code>among</code>, which is parallel iff <code>parallel</code> is true.
+	 * <p>
+	 * A parallel stream divides the combinations evenly among the threads of the common fork-join pool, which is worthwhile when a lot of work
+	 * is done with each combination. See {@link #spliteratorK(Set, int)}.
+	 */
+	public static <T> Stream<Set<T>> streamK(Set<T> among, int k, boolean parallel){
+		return StreamSupport.stream(spliteratorK(among, k), parallel);
+	}
+	
+	/**
+	 * Returns a Spliterator over every combination of <code>k</code> elements from <code>among</code>, in the same order as
+	 * {@link #iterateK(Set, int)}.
+	 * <p>
+	 * Combinations are numbered by their position in that order, and the Spliterator splits by halving the range of numbers it covers, so
+	 * each part can start at its first combination directly without a shared queue. If there are too many combinations to number with a
+	 * <code>long</code>, the Spliterator is instead backed by {@link #iterateK(Set, int)} and splits off batches in turn.
+	 */
+	public static <T> Spliterator<Set<T>> spliteratorK(Set<T> among, int k){
+		if (among == null || among.isEmpty() || k <= 0 || k > among.size()){
+			return new KCombinationSpliterator<T>(new ArrayList<T>(), 0);
+		}
+		List<T> chooseFrom = new ArrayList<T>(among);
+		try {
+			return new KCombinationSpliterator<T>(chooseFrom, k);
+		} catch (ArithmeticException e){
+			return Spliterators.spliteratorUnknownSize(new KCombinationIterator<T>(chooseFrom, k),
+					Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+		}
+	}
+	
+	/**
+	 * Returns a Spliterator over the combinations of <code>k</code> elements from <code>pool</code> with ranks from <code>from</code> up to but
+	 * not including <code>to</code>.
+	 * <p>
+	 * This starts directly at combination number <code>from</code> without producing the ones before it, so separate threads or processes
+	 * can each take a contiguous share of a large job. See {@link #rankK(List, Set)} for how combinations are numbered.
+	 * @throws IllegalArgumentException iff <code>k &lt; 0 || k &gt; pool.size()</code> or the range isn't within 0 to {@link #countK(int, int)}
+	 * @throws ArithmeticException iff there are more combinations than fit in a <code>long</code>
+	 */
+	public static <T> Spliterator<Set<T>> spliteratorK(List<T> pool, int k, long from, long to){
+		long count = countK(pool.size(), k);
+		if (from < 0 || from > to || to > count){
+			throw new IllegalArgumentException("range " + from + " to " + to + " not within " + count);
+		}
+		return new KCombinationSpliterator<T>(new ArrayList<T>(pool), k, from, to);
+	}
+	
+	/**
+	 * Returns the number of combinations of <code>k</code> elements from <code>n</code>, that is, n choose k.
+	 * @throws IllegalArgumentException iff <code>n &lt; 0 || k &lt; 0 || k &gt; n</code>
+	 * @throws ArithmeticException iff the number doesn't fit in a <code>long</code>, in which case use {@link #countKExact(int, int)}
+	 */
+	public static long countK(int n, int k){
+		checkK(n, k);
+		return KCombinationIterator.binomial(n, k);
+	}
+	
+	/**
+	 * Returns the number of combinations of <code>k</code> elements from <code>n</code>, however large.
+	 * @throws IllegalArgumentException iff <code>n &lt; 0 || k &lt; 0 || k &gt; n</code>
+	 */
+	public static BigInteger countKExact(int n, int k){
+		checkK(n, k);
+		k = Math.min(k, n - k);
+		BigInteger r = BigInteger.ONE;
+		for (int i = 1; i <= k; i++){
+			r = r.multiply(BigInteger.valueOf(n - k + i)).divide(BigInteger.valueOf(i));
+		}
+		return r;
+	}
+	
+	/**
+	 * Returns the rank of a combination of indices less than <code>n</code>, given in increasing order.
+	 * <p>
+	 * Combinations of the same size are ranked from 0 in lexicographic order of their indices, which is the order of {@link #iterateK(Set, int)}
+	 * and {@link #streamK(Set, int)}: for 2 from 4, {0, 1} has rank 0, {0, 2} rank 1, and {2, 3} rank 5.
+	 * @throws IllegalArgumentException iff the indices aren't increasing or aren't all from 0 to <code>n - 1</code>
+	 * @throws ArithmeticException iff there are more combinations than fit in a <code>long</code>
+	 */
+	public static long rankK(int[] indices, int n){
+		countK(n, indices.length); // checks the arguments and that every rank fits
+		for (int i = 0; i < indices.length; i++){
+			if (indices[i] < (i == 0 ? 0 : indices[i - 1] + 1) || indices[i] >= n){
+				throw new IllegalArgumentException("indices not increasing from 0 to " + (n - 1));
+			}
+		}
+		return KCombinationIterator.rank(indices, n);
+	}
+	
+	/**
+	 * Returns the indices, in increasing order, of the combination of <code>k</code> indices less than <code>n</code> that has rank <code>rank</code>.
+	 * <p>
+	 * This is the inverse of {@link #rankK(int[], int)}.
+	 * @throws IllegalArgumentException iff <code>n &lt; 0 || k &lt; 0 || k &gt; n</code> or <code>rank</code> isn't from 0 to <code>countK(n, k) - 1</code>
+	 * @throws ArithmeticException iff there are more combinations than fit in a <code>long</code>
+	 */
+	public static int[] unrankK(long rank, int n, int k){
+		long count = countK(n, k);
+		if (rank < 0 || rank >= count){
+			throw new IllegalArgumentException("rank " + rank + " not within " + count);
+		}
+		int[] indices = new int[k];
+		KCombinationIterator.unrank(rank, n, indices);
+		return indices;
+	}
+	
+	/**
+	 * Returns the rank of <code>combination</code> among the combinations of its size from <code>pool</code>, numbering the elements of
+	 * <code>pool</code> by their index.
+	 * @throws IllegalArgumentException iff any element of <code>combination</code> isn't in <code>pool</code>
+	 * @throws ArithmeticException iff there are more combinations than fit in a <code>long</code>
+	 * @see #rankK(int[], int)
+	 */
+	public static <T> long rankK(List<T> pool, Set<T> combination){
+		int[] indices = new int[combination.size()];
+		int j = 0;
+		for (T t : combination){
+			int i = pool.indexOf(t);
+			if (i < 0){
+				throw new IllegalArgumentException("not in pool: " + t);
+			}
+			indices[j++] = i;
+		}
+		Arrays.sort(indices);
+		return rankK(indices, pool.size());
+	}
+	
+	/**
+	 * Returns the combination of <code>k</code> elements from <code>pool</code> with rank <code>rank</code>.
+	 * @throws IllegalArgumentException iff <code>k &lt; 0 || k &gt; pool.size()</code> or <code>rank</code> is out of range
+	 * @throws ArithmeticException iff there are more combinations than fit in a <code>long</code>
+	 * @see #unrankK(long, int, int)
+	 */
+	public static <T> Set<T> unrankK(List<T> pool, int k, long rank){
+		Set<T> set = new HashSet<T>();
+		for (int i : unrankK(rank, pool.size(), k)){
+			set.add(pool.get(i));
+		}
+		return set;
+	}
+	
 	/**
 	 * Returns Set representing every combination of choosing exactly 1 element from each of the sets provided.
 	 * <p>
@@ -66,6 +242,405 @@ public class Combiner {
 		return master;
 	}	
 
+	/**
+	 * Returns the indices, in increasing order, of a uniformly random combination of <code>k</code> indices less than <code>n</code>.
+	 * <p>
+	 * This uses Floyd's algorithm, which draws exactly <code>k</code> random numbers however large <code>n</code> is.
+	 * @throws IllegalArgumentException iff <code>n &lt; 0 || k &lt; 0 || k &gt; n</code>
+	 */
+	public static int[] sampleK(int n, int k, Random random){
+		checkK(n, k);
+		long[] sample = floyd(n, k, random);
+		int[] indices = new int[k];
+		for (int i = 0; i < k; i++){
+			indices[i] = (int) sample[i];
+		}
+		return indices;
+	}
+	
+	/**
+	 * Returns a uniformly random combination of <code>k</code> elements from <code>pool</code>, without producing any other combination.
+	 * @throws IllegalArgumentException iff <code>k &lt; 0 || k &gt; pool.size()</code>
+	 * @see #sampleK(int, int, Random)
+	 */
+	public static <T> Set<T> sampleK(List<T> pool, int k, Random random){
+		Set<T> set = new HashSet<T>();
+		for (int i : sampleK(pool.size(), k, random)){
+			set.add(pool.get(i));
+		}
+		return set;
+	}
+	
+	/**
+	 * Returns <code>m</code> distinct combinations of <code>k</code> elements from <code>pool</code>, chosen uniformly at random from all
+	 * sets of <code>m</code> such combinations.
+	 * <p>
+	 * The combinations are found by drawing <code>m</code> distinct ranks with Floyd's algorithm and unranking each, so the work depends on
+	 * <code>m</code> and <code>k</code> but not on how many combinations there are. They are returned in order of rank.
+	 * @throws IllegalArgumentException iff <code>k &lt; 0 || k &gt; pool.size()</code> or <code>m</code> is negative or more than the number
+	 * of combinations
+	 * @see #unrankK(List, int, long)
+	 */
+	public static <T> List<Set<T>> sampleK(List<T> pool, int k, int m, Random random){
+		int n = pool.size();
+		checkK(n, k);
+		if (m < 0){
+			throw new IllegalArgumentException("negative sample size");
+		}
+		List<Set<T>> sample = new ArrayList<Set<T>>(m);
+		long count;
+		try {
+			count = KCombinationIterator.binomial(n, k);
+		} catch (ArithmeticException e){
+			// too many to rank, so draws of the same combination are too unlikely to matter; reject them anyway
+			Set<Set<T>> drawn = new HashSet<Set<T>>();
+			while (sample.size() < m){
+				Set<T> s = sampleK(pool, k, random);
+				if (drawn.add(s)){
+					sample.add(s);
+				}
+			}
+			return sample;
+		}
+		if (m > count){
+			throw new IllegalArgumentException("can't draw " + m + " from " + count + " combinations");
+		}
+		int[] indices = new int[k];
+		for (long rank : floyd(count, m, random)){
+			KCombinationIterator.unrank(rank, n, indices);
+			Set<T> set = new HashSet<T>();
+			for (int i : indices){
+				set.add(pool.get(i));
+			}
+			sample.add(set);
+		}
+		return sample;
+	}
+	
+	/**
+	 * Returns <code>m</code> distinct numbers from 0 to <code>n - 1</code>, chosen uniformly at random, in increasing order.
+	 * <p>
+	 * Floyd's algorithm: for each <code>j</code> from <code>n - m</code> to <code>n - 1</code>, draw a number up to <code>j</code> and take it,
+	 * or <code>j</code> itself if it was already taken.
+	 */
+	private static long[] floyd(long n, int m, Random random){
+		Set<Long> taken = new HashSet<Long>(m * 2);
+		for (long j = n - m; j < n; j++){
+			long t = nextLong(random, j + 1);
+			taken.add(taken.contains(t) ? j : t);
+		}
+		long[] sample = new long[m];
+		int i = 0;
+		for (long t : taken){
+			sample[i++] = t;
+		}
+		Arrays.sort(sample);
+		return sample;
+	}
+	
+	/**
+	 * Returns a uniformly random number from 0 to <code>bound - 1</code>.
+	 */
+	private static long nextLong(Random random, long bound){
+		if (bound <= Integer.MAX_VALUE){
+			return random.nextInt((int) bound);
+		}
+		long bits, value;
+		do {
+			// reject the top partial range of bits so every value is equally likely
+			bits = random.nextLong() >>> 1;
+			value = bits % bound;
+		} while (bits - value + (bound - 1) < 0);
+		return value;
+	}
+	
+	/**
+	 * Visits every combination of <code>k</code> elements from <code>pool</code> in revolving-door order, where each combination is reached
+	 * from the one before by swapping a single element out and another in.
+	 * <p>
+	 * <code>visitor</code> is given the first combination through {@link SwapVisitor#start(List)} and then each following one through
+	 * {@link SwapVisitor#onSwap(Object, Object)}, so it can keep whatever it computes about the current combination up to date in constant
+	 * time. When <code>k</code> is 0 or <code>pool.size()</code> there's just the one combination and no swaps. The order is Knuth's
+	 * Algorithm R (The Art of Computer Programming, 7.2.1.3) over the indices of <code>pool</code>.
+	 * @throws IllegalArgumentException iff <code>k &lt; 0 || k &gt; pool.size()</code>
+	 */
+	public static <T> void revolvingDoor(List<T> pool, int k, SwapVisitor<T> visitor){
+		int n = pool.size();
+		checkK(n, k);
+		List<T> first = new ArrayList<T>(pool.subList(0, k));
+		visitor.start(Collections.unmodifiableList(first));
+		if (k == 0 || k == n){
+			return;
+		}
+		// c[1] to c[k] are the indices chosen, in increasing order, and c[k + 1] is a sentinel
+		int[] c = new int[k + 2];
+		for (int j = 1; j <= k; j++){
+			c[j] = j - 1;
+		}
+		c[k + 1] = n;
+		boolean odd = (k & 1) == 1;
+		while (true){
+			// the easy case moves just the smallest index
+			if (odd && c[1] + 1 < c[2]){
+				visitor.onSwap(pool.get(c[1]), pool.get(c[1] + 1));
+				c[1]++;
+				continue;
+			} else if (!odd && c[1] > 0){
+				visitor.onSwap(pool.get(c[1]), pool.get(c[1] - 1));
+				c[1]--;
+				continue;
+			}
+			int j = 2;
+			boolean decrease = odd;
+			while (j <= k){
+				if (decrease){
+					// c[j] == c[j - 1] + 1
+					if (c[j] >= j){
+						visitor.onSwap(pool.get(c[j]), pool.get(j - 2));
+						c[j] = c[j - 1];
+						c[j - 1] = j - 2;
+						break;
+					}
+				} else {
+					// c[j - 1] == j - 2
+					if (c[j] + 1 < c[j + 1]){
+						visitor.onSwap(pool.get(j - 2), pool.get(c[j] + 1));
+						c[j - 1] = c[j];
+						c[j]++;
+						break;
+					}
+				}
+				j++;
+				decrease = !decrease;
+			}
+			if (j > k){
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * Returns the combination of <code>k</code> elements from <code>pool</code> with the highest score that's feasible, or null if none is.
+	 * <p>
+	 * This searches like {@link #chooseK(Set, int)} builds its combinations, adding elements in index order, but abandons a partial
+	 * combination as soon as <code>search</code> finds it infeasible or bounds it no higher than the best score found so far, so the
+	 * combinations that would extend it are never made. To minimize a cost instead, score and bound its negation.
+	 * <p>
+	 * Of combinations with equal scores, the first found is returned.
+	 * @throws IllegalArgumentException iff <code>k &lt; 0 || k &gt; pool.size()</code>
+	 */
+	public static <T> Set<T> bestK(List<T> pool, int k, BranchAndBound<T> search){
+		checkK(pool.size(), k);
+		List<T> chooseFrom = new ArrayList<T>(pool);
+		List<T> working = new ArrayList<T>(k);
+		BestK<T> best = new BestK<T>();
+		searchSets(best, k, working, Collections.unmodifiableList(working), 0, chooseFrom, search);
+		return best.combination;
+	}
+	
+	/**
+	 * Best combination found so far by {@link Combiner#bestK(List, int, BranchAndBound)}.
+	 */
+	private static final class BestK<T> {
+		
+		private Set<T> combination;
+		
+		private double score = Double.NEGATIVE_INFINITY;
+	}
+	
+	/**
+	 * Recursive method searching out the best n choose k combination, pruning as it goes.
+	 * <p>
+	 * <code>working</code> is changed in place and restored before returning, and <code>view</code> is an unmodifiable view of it.
+	 */
+	private static <T> void searchSets(BestK<T> best, int k, List<T> working, List<T> view, int start, List<T> chooseFrom,
+			BranchAndBound<T> search){
+		if (!search.feasible(view)){
+			return;
+		}
+		if (working.size() == k){
+			double score = search.score(view);
+			if (best.combination == null || score > best.score){
+				best.combination = new HashSet<T>(working);
+				best.score = score;
+			}
+			return;
+		}
+		if (best.combination != null && search.bound(view, chooseFrom.subList(start, chooseFrom.size())) <= best.score){
+			return;
+		}
+		// leave enough elements to fill the combination
+		for (int i = start; i <= chooseFrom.size() - (k - working.size()); i++){
+			working.add(chooseFrom.get(i));
+			searchSets(best, k, working, view, i + 1, chooseFrom, search);
+			working.remove(working.size() - 1);
+		}
+	}
+	
+	/**
+	 * Returns an Iterator over every way of choosing exactly 1 element from each of the collections in <code>among</code>, producing one choice at a time.
+	 * <p>
+	 * Unlike {@link #chooseOneFromEach(Set)}, a choice is a List holding the element chosen from each non-empty collection, in the
+	 * iteration order of <code>among</code>; <code>new HashSet&lt;T&gt;(choice)</code> gives the same Set when the collections are disjoint.
+	 * Choices are made like the readings of an odometer, with the last collection changing fastest, so only the current position is held.
+	 * <p>
+	 * Two conditions give a single empty choice: <code>among</code> is null, or it has no non-empty collections.
+	 */
+	public static <T> Iterator<List<T>> iterateOneFromEach(Collection<? extends Collection<T>> among){
+		return new ProductIterator<T>(groups(among));
+	}
+	
+	/**
+	 * Returns a Stream of every way of choosing exactly 1 element from each of the collections in <code>among</code>, which is parallel iff
+	 * <code>parallel</code> is true.
+	 * <p>
+	 * Choices are as for {@link #iterateOneFromEach(Collection)}, numbered in that order, and the Stream's Spliterator splits by halving the
+	 * range of numbers it covers. If there are too many choices to number with a <code>long</code>, it splits off batches in turn instead.
+	 */
+	public static <T> Stream<List<T>> streamOneFromEach(Collection<? extends Collection<T>> among, boolean parallel){
+		Object[][] groups = groups(among);
+		Spliterator<List<T>> spliterator;
+		try {
+			spliterator = new ProductSpliterator<T>(groups);
+		} catch (ArithmeticException e){
+			spliterator = Spliterators.spliteratorUnknownSize(new ProductIterator<T>(groups),
+					Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+		}
+		return StreamSupport.stream(spliterator, parallel);
+	}
+	
+	/**
+	 * Returns the number of permutations of <code>n</code> elements, that is, n factorial.
+	 * @throws IllegalArgumentException iff <code>n &lt; 0</code>
+	 * @throws ArithmeticException iff the number doesn't fit in a <code>long</code>, that is, <code>n &gt; 20</code>
+	 */
+	public static long countPermutations(int n){
+		if (n < 0){
+			throw new IllegalArgumentException("negative size");
+		} else if (n > PermutationSpliterator.MAX_RANKED){
+			throw new ArithmeticException(n + "! doesn't fit in a long");
+		}
+		return PermutationSpliterator.factorial(n);
+	}
+	
+	/**
+	 * Changes <code>indices</code> in place to the next permutation of its values in lexicographic order, and returns true, or returns false
+	 * if it was already the last one.
+	 * <p>
+	 * Starting from 0 to <code>n - 1</code> in increasing order, this steps through every permutation with no allocation at all:
+	 * <pre>
+	 * do {
+	 *     ...
+	 * } while (Combiner.nextPermutation(indices));
+	 * </pre>
+	 */
+	public static boolean nextPermutation(int[] indices){
+		return PermutationSpliterator.advance(indices);
+	}
+	
+	/**
+	 * Performs <code>action</code> on every permutation of the indices 0 to <code>n - 1</code>, in parallel iff <code>parallel</code> is true.
+	 * <p>
+	 * Each permutation is given as an array that is changed in place for the next one, so nothing is allocated per permutation. The action
+	 * mustn't change the array, and must copy it to keep it. In parallel, each thread works through its own range of permutations with its
+	 * own array, and permutations are not performed in order.
+	 * @throws IllegalArgumentException iff <code>n &lt; 0</code>
+	 */
+	public static void forEachPermutation(int n, boolean parallel, Consumer<int[]> action){
+		if (n < 0){
+			throw new IllegalArgumentException("negative size");
+		}
+		StreamSupport.stream(new PermutationSpliterator<int[]>(n, indices -> indices), parallel).forEach(action);
+	}
+	
+	/**
+	 * Returns an Iterator over every ordering of <code>items</code>, in lexicographic order of their indices, producing one at a time.
+	 * <p>
+	 * Each ordering is a new List, and only the current one is held between them.
+	 */
+	public static <T> Iterator<List<T>> iteratePermutations(List<T> items){
+		return Spliterators.iterator(permutations(items));
+	}
+	
+	/**
+	 * Returns a Stream of every ordering of <code>items</code>, in lexicographic order of their indices, which is parallel iff
+	 * <code>parallel</code> is true.
+	 * <p>
+	 * Orderings are numbered by {@link #rankPermutation(int[])} and the Stream's Spliterator splits by halving the range of numbers it covers.
+	 * With more than 20 items there are too many to number, and the Stream can't be split.
+	 */
+	public static <T> Stream<List<T>> streamPermutations(List<T> items, boolean parallel){
+		return StreamSupport.stream(permutations(items), parallel);
+	}
+	
+	/**
+	 * Returns the rank of a permutation of the indices 0 to <code>indices.length - 1</code> among all of them in lexicographic order.
+	 * @throws IllegalArgumentException iff <code>indices</code> isn't such a permutation
+	 * @throws ArithmeticException iff there are more permutations than fit in a <code>long</code>
+	 */
+	public static long rankPermutation(int[] indices){
+		countPermutations(indices.length);
+		boolean[] seen = new boolean[indices.length];
+		for (int i : indices){
+			if (i < 0 || i >= indices.length || seen[i]){
+				throw new IllegalArgumentException("not a permutation: " + Arrays.toString(indices));
+			}
+			seen[i] = true;
+		}
+		return PermutationSpliterator.rank(indices);
+	}
+	
+	/**
+	 * Returns the permutation of the indices 0 to <code>n - 1</code> with rank <code>rank</code>.
+	 * <p>
+	 * This is the inverse of {@link #rankPermutation(int[])}.
+	 * @throws IllegalArgumentException iff <code>n &lt; 0</code> or <code>rank</code> isn't from 0 to <code>countPermutations(n) - 1</code>
+	 * @throws ArithmeticException iff there are more permutations than fit in a <code>long</code>
+	 */
+	public static int[] unrankPermutation(long rank, int n){
+		long count = countPermutations(n);
+		if (rank < 0 || rank >= count){
+			throw new IllegalArgumentException("rank " + rank + " not within " + count);
+		}
+		int[] indices = new int[n];
+		PermutationSpliterator.unrank(rank, indices);
+		return indices;
+	}
+	
+	private static <T> Spliterator<List<T>> permutations(List<T> items){
+		Object[] pool = items.toArray();
+		return new PermutationSpliterator<List<T>>(pool.length, indices -> {
+			Object[] ordering = new Object[indices.length];
+			for (int i = 0; i < indices.length; i++){
+				ordering[i] = pool[indices[i]];
+			}
+			@SuppressWarnings("unchecked")
+			List<T> list = (List<T>) Arrays.asList(ordering);
+			return list;
+		});
+	}
+	
+	/**
+	 * Returns the non-empty collections of <code>among</code> as arrays, copied once so the options can be indexed directly.
+	 */
+	private static <T> Object[][] groups(Collection<? extends Collection<T>> among){
+		List<Object[]> groups = new ArrayList<Object[]>();
+		if (among != null){
+			for (Collection<T> c : among){
+				if (!c.isEmpty()){
+					groups.add(c.toArray());
+				}
+			}
+		}
+		return groups.toArray(new Object[groups.size()][]);
+	}
+	
+	private static void checkK(int n, int k){
+		if (n < 0 || k < 0 || k > n){
+			throw new IllegalArgumentException("can't choose " + k + " from " + n);
+		}
+	}
+	
 	/**
 	 * Recursive method searching out all possible n choose k combinations.
 	 * <p>
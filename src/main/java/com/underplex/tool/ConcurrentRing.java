@@ -0,0 +1,576 @@
+package com.underplex.tool;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * A thread-safe implementation of {@code Ring<E>} in which reads never block.
+ * <p>
+ * The state of the ring is held in an immutable snapshot: the elements in order, a hash index from each element to its position, and the
+ * offset of the first element. Every read takes the current snapshot with a single volatile read and answers from it, so reads never
+ * wait on each other or on writers, and {@code contains}, {@code indexOf}, {@code get}, {@code next} and {@code previous} all take constant time.
+ * <p>
+ * Writers are serialized and replace the snapshot. Adding or removing an element copies the snapshot, taking linear time, while {@code makeFirst}
+ * shares the existing arrays and only changes the offset. This suits rings that are read far more often than they change, such as the turn order
+ * at a table that several threads consult while players only occasionally join or leave.
+ * <p>
+ * Each single method call is atomic. A sequence of calls is not; for instance, an element returned by {@code next} may be removed by another thread
+ * before it is used. When several values must agree with each other, take them from one call to {@code toList}.
+ * @see com.underplex.tool.Ring
+ *
+ * @author Brandon Irvine
+ */
+public class ConcurrentRing<E> implements Ring<E>, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Guards every change to {@code snapshot}. Reads don't take it.
+	 */
+	private transient Object lock;
+
+	/**
+	 * The current state of the ring. Never null.
+	 */
+	private transient volatile Snapshot snapshot;
+
+	public ConcurrentRing(){
+		this.lock = new Object();
+		this.snapshot = Snapshot.EMPTY;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#add(int, E)
+	 */
+	@Override
+	public final boolean add(int index, E element){
+		if (element == null){
+			throw new NullPointerException();
+		}
+		synchronized (lock){
+			Snapshot s = snapshot;
+			if ((index < 0 || index > s.size())){
+				throw new IndexOutOfBoundsException();
+			} else if (s.contains(element)){
+				return false;
+			}
+			Object[] order = s.ordered(1);
+			System.arraycopy(order, index, order, index + 1, s.size() - index);
+			order[index] = element;
+			snapshot = new Snapshot(order);
+			return true;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#addFirst(E)
+	 */
+	@Override
+	public final boolean addFirst(E element){
+		return add(0, element);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#addLast(E)
+	 */
+	@Override
+	public final boolean addLast(E element){
+		if (element == null){
+			throw new NullPointerException();
+		}
+		synchronized (lock){
+			Snapshot s = snapshot;
+			if (s.contains(element)){
+				return false;
+			}
+			Object[] order = s.ordered(1);
+			order[s.size()] = element;
+			snapshot = new Snapshot(order);
+			return true;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#makeFirst(E)
+	 */
+	@Override
+	public final boolean makeFirst(E element){
+		if (element == null){
+			throw new NullPointerException();
+		}
+		synchronized (lock){
+			Snapshot s = snapshot;
+			Integer position = s.positions.get(element);
+			if (position == null){
+				throw new IllegalArgumentException();
+			} else if (position.intValue() == s.rotation){
+				return false;
+			}
+			snapshot = new Snapshot(s.order, s.positions, position.intValue());
+			return true;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#clear()
+	 */
+	@Override
+	public final void clear(){
+		synchronized (lock){
+			snapshot = Snapshot.EMPTY;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#getFirst()
+	 */
+	@Override
+	public final E getFirst(){
+		Snapshot s = snapshot;
+		if (s.size() == 0){
+			return null;
+		}
+		return s.get(0);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#getLast()
+	 */
+	@Override
+	public final E getLast(){
+		Snapshot s = snapshot;
+		if (s.size() == 0){
+			return null;
+		}
+		return s.get(s.size() - 1);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#get(int)
+	 */
+	@Override
+	public final E get(int index){
+		Snapshot s = snapshot;
+		if ((index < 0 || index >= s.size())){
+			throw new IndexOutOfBoundsException();
+		}
+		return s.get(index);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#indexOf(E)
+	 */
+	@Override
+	public final int indexOf(E element){
+		Snapshot s = snapshot;
+		Integer position = (element == null) ? null : s.positions.get(element);
+		if (position == null){
+			return -1;
+		}
+		int i = position.intValue() - s.rotation;
+		return i < 0 ? i + s.size() : i;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#isEmpty()
+	 */
+	@Override
+	public final boolean isEmpty(){
+		return snapshot.size() == 0;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#next(E)
+	 */
+	@Override
+	public final E next(E previousElement){
+		if (previousElement == null){
+			throw new NullPointerException();
+		}
+		Snapshot s = snapshot;
+		Integer position = s.positions.get(previousElement);
+		if (position == null){
+			return null;
+		}
+		int p = position.intValue() + 1;
+		return s.at(p == s.size() ? 0 : p);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#previous(E)
+	 */
+	@Override
+	public final E previous(E nextElement){
+		if (nextElement == null){
+			throw new NullPointerException();
+		}
+		Snapshot s = snapshot;
+		Integer position = s.positions.get(nextElement);
+		if (position == null){
+			return null;
+		}
+		int p = position.intValue();
+		return s.at(p == 0 ? s.size() - 1 : p - 1);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#remove(E)
+	 */
+	@Override
+	public final boolean remove(E element){
+		if (element == null){
+			throw new NullPointerException();
+		}
+		synchronized (lock){
+			Snapshot s = snapshot;
+			if (!s.contains(element)){
+				return false;
+			}
+			int index = s.positions.get(element).intValue() - s.rotation;
+			if (index < 0){
+				index += s.size();
+			}
+			Object[] order = s.ordered(0);
+			Object[] smaller = new Object[order.length - 1];
+			System.arraycopy(order, 0, smaller, 0, index);
+			System.arraycopy(order, index + 1, smaller, index, smaller.length - index);
+			snapshot = new Snapshot(smaller);
+			return true;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#contains(E)
+	 */
+	@Override
+	public final boolean contains(E element){
+		return element != null && snapshot.contains(element);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#size()
+	 */
+	@Override
+	public final int size(){
+		return snapshot.size();
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#toList()
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public final List<E> toList(){
+		return new ArrayList<E>((List<E>) Arrays.asList(snapshot.ordered(0)));
+	}
+
+	/**
+	 * Adds the elements with a single copy of the snapshot, so other threads see either none of them or all of them.
+	 * @see com.underplex.tool.Ring#addAll(Collection)
+	 */
+	@Override
+	public final boolean addAll(Collection<? extends E> elements){
+		List<E> incoming = new ArrayList<E>(elements);
+		if (incoming.contains(null)){
+			throw new NullPointerException();
+		}
+		synchronized (lock){
+			Snapshot s = snapshot;
+			Map<Object, Integer> seen = new HashMap<Object, Integer>(s.positions);
+			List<E> added = new ArrayList<E>(incoming.size());
+			for (E e : incoming){
+				if (seen.put(e, 0) == null){
+					added.add(e);
+				}
+			}
+			if (added.isEmpty()){
+				return false;
+			}
+			Object[] order = s.ordered(added.size());
+			for (int i = 0; i < added.size(); i++){
+				order[s.size() + i] = added.get(i);
+			}
+			snapshot = new Snapshot(order);
+			return true;
+		}
+	}
+
+	/**
+	 * Removes matching elements with a single copy of the snapshot, so other threads see either none of them removed or all of them.
+	 * <p>
+	 * The filter is called while other writers are held off, so it should be quick and must not change this ring.
+	 * @see com.underplex.tool.Ring#removeIf(Predicate)
+	 */
+	@Override
+	public final boolean removeIf(Predicate<? super E> filter){
+		if (filter == null){
+			throw new NullPointerException();
+		}
+		synchronized (lock){
+			Snapshot s = snapshot;
+			Object[] order = s.ordered(0);
+			int kept = 0;
+			for (Object o : order){
+				@SuppressWarnings("unchecked")
+				E e = (E) o;
+				if (!filter.test(e)){
+					order[kept++] = e;
+				}
+			}
+			if (kept == order.length){
+				return false;
+			}
+			snapshot = new Snapshot(Arrays.copyOf(order, kept));
+			return true;
+		}
+	}
+
+	/**
+	 * Returns a new cursor positioned at the first element of this ring.
+	 * <p>
+	 * Each move of the cursor works from a single snapshot of the ring, so it is never confused by writes made by other threads meanwhile, though like
+	 * all cursors it should only be used by one thread.
+	 * @see com.underplex.tool.Ring#cursor()
+	 */
+	@Override
+	public final RingCursor<E> cursor(){
+		return new SnapshotCursor();
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		Object[] order = snapshot.ordered(0);
+		out.writeInt(order.length);
+		for (Object element : order){
+			out.writeObject(element);
+		}
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		int length = in.readInt();
+		if (length < 0){
+			throw new IOException("negative size");
+		}
+		Object[] order = new Object[length];
+		for (int i = 0; i < length; i++){
+			order[i] = in.readObject();
+		}
+		Snapshot s = new Snapshot(order);
+		if (s.positions.size() != length || s.positions.containsKey(null)){
+			throw new IOException("duplicate or null element");
+		}
+		this.lock = new Object();
+		this.snapshot = s;
+	}
+
+	/**
+	 * Cursor remembering its element, the index it last had and its neighbors then, in the same way as {@code IndexedRingCursor}.
+	 */
+	private final class SnapshotCursor implements RingCursor<E> {
+
+		private E element;
+
+		private int index;
+
+		private E before;
+
+		private E after;
+
+		private SnapshotCursor(){
+			Snapshot s = snapshot;
+			if (s.size() > 0){
+				moveToIndex(s, 0);
+			}
+		}
+
+		@Override
+		public E current(){
+			return locate(snapshot) >= 0 ? element : null;
+		}
+
+		@Override
+		public E advance(){
+			Snapshot s = snapshot;
+			int size = s.size();
+			if (size == 0){
+				element = null;
+				return null;
+			}
+			int i = locate(s);
+			int target;
+			if (i >= 0){
+				target = (i == size - 1) ? 0 : i + 1;
+			} else if (element != null){
+				target = gapAfter(s);
+			} else {
+				target = 0;
+			}
+			return moveToIndex(s, target);
+		}
+
+		@Override
+		public E retreat(){
+			Snapshot s = snapshot;
+			int size = s.size();
+			if (size == 0){
+				element = null;
+				return null;
+			}
+			int i = locate(s);
+			int target;
+			if (i >= 0){
+				target = (i == 0) ? size - 1 : i - 1;
+			} else if (element != null){
+				int after = gapAfter(s);
+				target = (after == 0) ? size - 1 : after - 1;
+			} else {
+				target = size - 1;
+			}
+			return moveToIndex(s, target);
+		}
+
+		@Override
+		public void moveTo(E element){
+			if (element == null){
+				throw new NullPointerException();
+			}
+			Snapshot s = snapshot;
+			int i = indexOf(s, element);
+			if (i < 0){
+				throw new IllegalArgumentException();
+			}
+			moveToIndex(s, i);
+		}
+
+		/**
+		 * Returns the index of {@code element} in the snapshot, or -1 if it has no position or isn't in the snapshot.
+		 */
+		private int locate(Snapshot s){
+			int i = indexOf(s, element);
+			if (i >= 0){
+				moveToIndex(s, i);
+			}
+			return i;
+		}
+
+		/**
+		 * Returns the index of the element now following the gap left by the removed {@code element}, working from whichever remembered
+		 * neighbor is still in the snapshot.
+		 */
+		private int gapAfter(Snapshot s){
+			int size = s.size();
+			int i = indexOf(s, after);
+			if (i >= 0){
+				return i;
+			}
+			i = indexOf(s, before);
+			if (i >= 0){
+				return (i == size - 1) ? 0 : i + 1;
+			}
+			return (index < size) ? index : 0;
+		}
+
+		private E moveToIndex(Snapshot s, int target){
+			int size = s.size();
+			element = s.get(target);
+			index = target;
+			before = s.get((target == 0) ? size - 1 : target - 1);
+			after = s.get((target == size - 1) ? 0 : target + 1);
+			return element;
+		}
+
+		/**
+		 * Returns the index of {@code e} in the snapshot, or -1 if it is {@code null} or isn't in the snapshot.
+		 */
+		private int indexOf(Snapshot s, E e){
+			Integer position = (e == null) ? null : s.positions.get(e);
+			if (position == null){
+				return -1;
+			}
+			int i = position.intValue() - s.rotation;
+			return (i < 0) ? i + s.size() : i;
+		}
+	}
+
+	/**
+	 * Immutable state of a ring. Instances may share their arrays and maps with each other, but never change them.
+	 */
+	private static final class Snapshot {
+
+		private static final Snapshot EMPTY = new Snapshot(new Object[0]);
+
+		/**
+		 * Elements in stored order. The element at {@code rotation} is the first element of the ring.
+		 */
+		private final Object[] order;
+
+		/**
+		 * Maps each element to its position in {@code order}.
+		 */
+		private final Map<Object, Integer> positions;
+
+		private final int rotation;
+
+		private Snapshot(Object[] order){
+			Map<Object, Integer> map = new HashMap<Object, Integer>(Math.max(16, order.length * 2));
+			for (int i = 0; i < order.length; i++){
+				map.put(order[i], i);
+			}
+			this.order = order;
+			this.positions = Collections.unmodifiableMap(map);
+			this.rotation = 0;
+		}
+
+		private Snapshot(Object[] order, Map<Object, Integer> positions, int rotation){
+			this.order = order;
+			this.positions = positions;
+			this.rotation = rotation;
+		}
+
+		private int size(){
+			return order.length;
+		}
+
+		private boolean contains(Object element){
+			return positions.containsKey(element);
+		}
+
+		/**
+		 * Returns the element with the specified index in ring order.
+		 */
+		private <E> E get(int index){
+			int p = rotation + index;
+			return at(p >= order.length ? p - order.length : p);
+		}
+
+		/**
+		 * Returns the element at the specified position in stored order.
+		 */
+		@SuppressWarnings("unchecked")
+		private <E> E at(int position){
+			return (E) order[position];
+		}
+
+		/**
+		 * Returns a new array of the elements in ring order, followed by {@code extra} empty slots.
+		 */
+		private Object[] ordered(int extra){
+			Object[] copy = new Object[order.length + extra];
+			int tail = order.length - rotation;
+			System.arraycopy(order, rotation, copy, 0, tail);
+			System.arraycopy(order, 0, copy, tail, rotation);
+			return copy;
+		}
+	}
+}
@@ -4,6 +4,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Utility class with static methods for finding elements in collections.
@@ -86,6 +90,150 @@ public class Finder {
 		return rT;
 	}
 	
+	/**
+	 * Returns the first element of collection, in its iteration order, with <code>toString</code> containing <code>search</code> strings.
+	 * <p>
+	 * Returns <code>null</code> if the collection is empty or null or if no item can be matched. Matching is the same as for
+	 * {@link #find(Collection, String...)}, but the search stops at the first match instead of going on to find the last one.
+	 * <p>
+	 * If <code>parallel</code> is true, the collection is split among the threads of the common fork-join pool. Work on elements after a
+	 * match is abandoned, while elements before it are still checked, so the result is the same as a sequential search.
+	 * 
+	 * @param collection	collection of elements to be searched
+	 * @param parallel		whether to search in parallel
+	 * @param search		String varargs that need to be found in the string, not case-sensitive
+	 */
+	public static <T> T findFirst(Collection<T> collection, boolean parallel, String...search){
+		if (collection == null)
+			return null;
+		return stream(collection, parallel).filter(containing(search)).findFirst().orElse(null);
+	}
+	
+	/**
+	 * Returns any element of collection with <code>toString</code> containing <code>search</code> strings.
+	 * <p>
+	 * Returns <code>null</code> if the collection is empty or null or if no item can be matched. Matching is the same as for
+	 * {@link #find(Collection, String...)}, but the search stops at whichever match is found first.
+	 * <p>
+	 * If <code>parallel</code> is true, the collection is split among the threads of the common fork-join pool, and all of them stop as soon as
+	 * any finds a match. Which match is returned may differ from one search to the next.
+	 * 
+	 * @param collection	collection of elements to be searched
+	 * @param parallel		whether to search in parallel
+	 * @param search		String varargs that need to be found in the string, not case-sensitive
+	 */
+	public static <T> T findAny(Collection<T> collection, boolean parallel, String...search){
+		if (collection == null)
+			return null;
+		return stream(collection, parallel).filter(containing(search)).findAny().orElse(null);
+	}
+	
+	/**
+	 * Returns every element of collection with <code>toString</code> containing <code>search</code> strings, in its iteration order.
+	 * <p>
+	 * Returns an empty list if the collection is empty or null or if no item can be matched. Matching is the same as for
+	 * {@link #find(Collection, String...)}. If <code>parallel</code> is true, the collection is split among the threads of the common
+	 * fork-join pool.
+	 * 
+	 * @param collection	collection of elements to be searched
+	 * @param parallel		whether to search in parallel
+	 * @param search		String varargs that need to be found in the string, not case-sensitive
+	 */
+	public static <T> List<T> findAll(Collection<T> collection, boolean parallel, String...search){
+		if (collection == null)
+			return new ArrayList<T>();
+		return stream(collection, parallel).filter(containing(search)).collect(Collectors.toCollection(ArrayList::new));
+	}
+	
+	/**
+	 * Returns the last element of collection with <code>toString</code> matched by <code>matcher</code>.
+	 * <p>
+	 * Returns <code>null</code> if the collection is empty or if no item can be matched.
+	 * <p>
+	 * This does the same as {@link #find(Collection, String...)} or {@link #findExcluding(String, Collection, String...)}, but the terms are
+	 * compiled once, each element is checked for all of them in one pass, and no upper case copies are made. A matcher can be kept and used
+	 * for any number of searches.
+	 * 
+	 * @param collection	collection of elements to be searched
+	 * @param matcher		compiled search terms
+	 */
+	public static <T> T find(Collection<T> collection, TermMatcher matcher){
+		return find(collection, Object::toString, matcher);
+	}
+	
+	/**
+	 * Returns the last element of collection with the key given by <code>key</code> containing <code>search</code> strings.
+	 * <p>
+	 * Returns <code>null</code> if the collection is empty or if no item can be found or matched.
+	 * <p>
+	 * This is {@link #find(Collection, String...)} for elements whose searchable text isn't their <code>toString</code>, or whose
+	 * <code>toString</code> is costly to build. The key is matched where it is, as with {@link TermMatcher}, without making an upper case
+	 * copy, so a key extractor that returns a field allocates nothing per element.
+	 * 
+	 * @param collection	collection of elements to be searched
+	 * @param key			gives the text to search for each element
+	 * @param search		String varargs that need to be found in the key, not case-sensitive
+	 */
+	public static <T> T find(Collection<T> collection, Function<? super T, ? extends CharSequence> key, String...search){
+		return find(collection, key, TermMatcher.of(search));
+	}
+	
+	/**
+	 * Returns the last element of collection with the key given by <code>key</code> containing <code>search</code> strings but not
+	 * containing <code>without</code> String.
+	 * <p>
+	 * Returns <code>null</code> if the collection is empty or if no item can be found or matched.
+	 * <p>
+	 * This is {@link #findExcluding(String, Collection, String...)} with a key extractor, as for
+	 * {@link #find(Collection, Function, String...)}.
+	 * 
+	 * @param without		String that can't be present in the key of the returned element, not case-sensitive
+	 * @param collection	collection of elements to be searched
+	 * @param key			gives the text to search for each element
+	 * @param search		String varargs that need to be found in the key, not case-sensitive
+	 */
+	public static <T> T findExcluding(String without, Collection<T> collection, Function<? super T, ? extends CharSequence> key,
+			String...search){
+		return find(collection, key, TermMatcher.excluding(without, search));
+	}
+	
+	/**
+	 * Returns the last element of collection with the key given by <code>key</code> matched by <code>matcher</code>.
+	 * <p>
+	 * Returns <code>null</code> if the collection is empty or if no item can be matched.
+	 * 
+	 * @param collection	collection of elements to be searched
+	 * @param key			gives the text to search for each element
+	 * @param matcher		compiled search terms
+	 */
+	public static <T> T find(Collection<T> collection, Function<? super T, ? extends CharSequence> key, TermMatcher matcher){
+		T rT = null;
+		for ( T t : collection )
+			if ( matcher.matches( key.apply( t ) ) )
+				rT = t;
+		return rT;
+	}
+	
+	private static <T> Stream<T> stream(Collection<T> collection, boolean parallel){
+		return parallel ? collection.parallelStream() : collection.stream();
+	}
+	
+	/**
+	 * Returns a test for elements with <code>toString</code> containing every one of <code>search</code>, with the terms made upper case just once.
+	 */
+	private static Predicate<Object> containing(String...search){
+		String[] terms = new String[search.length];
+		for (int i = 0; i < terms.length; i++)
+			terms[i] = search[i].toUpperCase();
+		return t -> {
+			String compare = t.toString().toUpperCase();
+			for ( String s : terms )
+				if ( !compare.contains( s ) )
+					return false;
+			return true;
+		};
+	}
+	
 	/**
 	 * Returns the element of <code>collection</code> that has the highest-ranked element according to <code>comparator</code>.
 	 * 
@@ -0,0 +1,161 @@
+package com.underplex.tool;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index over a collection for answering many of the same searches as {@code Finder}, without going over the whole collection each time.
+ * <p>
+ * The index is built once, holding the upper case {@code toString} of each element and, for each trigram of those strings, the elements
+ * that have it. A search only checks the elements having every trigram of every search term, which for a large catalog is usually a handful.
+ * Searches give the same results as {@link Finder#find(Collection, String...)} and {@link Finder#findExcluding(String, Collection, String...)}
+ * would have on the collection when the index was built, including returning the last match.
+ * <p>
+ * The index doesn't change after it's built, so it can be searched by many threads at once, but it won't notice changes to the collection
+ * or to what its elements' {@code toString} returns.
+ * @see com.underplex.tool.Finder
+ *
+ * @author Brandon Irvine
+ */
+public class FinderIndex<T> {
+
+	private final List<T> elements;
+
+	/**
+	 * Upper case {@code toString} of each element, by position.
+	 */
+	private final String[] keys;
+
+	/**
+	 * Increasing positions of the elements whose keys have each trigram.
+	 */
+	private final Map<Long, int[]> postings;
+
+	/**
+	 * Builds an index over the elements of {@code collection}, in its iteration order.
+	 * @param collection - elements to be searched, none of which may be {@code null}
+	 */
+	public FinderIndex(Collection<T> collection){
+		this.elements = new ArrayList<T>(collection);
+		this.keys = new String[elements.size()];
+		Map<Long, Posting> building = new HashMap<Long, Posting>();
+		for (int p = 0; p < keys.length; p++){
+			keys[p] = elements.get(p).toString().toUpperCase();
+			for (long t : Trigrams.of(keys[p])){
+				building.computeIfAbsent(t, x -> new Posting()).add(p);
+			}
+		}
+		this.postings = new HashMap<Long, int[]>(building.size() * 2);
+		for (Map.Entry<Long, Posting> e : building.entrySet()){
+			postings.put(e.getKey(), e.getValue().toArray());
+		}
+	}
+
+	/**
+	 * Returns the last element whose {@code toString} contains every one of the {@code search} strings, or {@code null} if there isn't one.
+	 * <p>
+	 * Like {@link Finder#find(Collection, String...)}, this isn't case-sensitive.
+	 * @param search - String varargs that need to be found in the string, not case-sensitive
+	 * @return last matching element or {@code null}
+	 */
+	public T find(String...search){
+		return findExcluding(null, search);
+	}
+
+	/**
+	 * Returns the last element whose {@code toString} contains every one of the {@code search} strings but not {@code without}, or
+	 * {@code null} if there isn't one.
+	 * <p>
+	 * Like {@link Finder#findExcluding(String, Collection, String...)}, this isn't case-sensitive.
+	 * @param without - String that can't be present in returned element, not case-sensitive, or {@code null} to exclude nothing
+	 * @param search - String varargs that need to be found in the string, not case-sensitive
+	 * @return last matching element or {@code null}
+	 */
+	public T findExcluding(String without, String...search){
+		String[] terms = new String[search.length];
+		for (int i = 0; i < terms.length; i++){
+			terms[i] = search[i].toUpperCase();
+		}
+		String excluded = without == null ? null : without.toUpperCase();
+		int[] candidates = candidates(terms);
+		for (int c = (candidates == null ? keys.length : candidates.length) - 1; c >= 0; c--){
+			int p = candidates == null ? c : candidates[c];
+			if (matches(keys[p], terms, excluded)){
+				return elements.get(p);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the number of elements in the index.
+	 * @return number of elements
+	 */
+	public int size(){
+		return elements.size();
+	}
+
+	/**
+	 * Returns the increasing positions of the elements having every trigram of every term, or {@code null} if no term is long enough to
+	 * have a trigram and every element is a candidate.
+	 */
+	private int[] candidates(String[] terms){
+		List<int[]> lists = new ArrayList<int[]>();
+		for (String term : terms){
+			for (long t : Trigrams.of(term)){
+				int[] list = postings.get(t);
+				if (list == null){
+					return new int[0];
+				}
+				lists.add(list);
+			}
+		}
+		if (lists.isEmpty()){
+			return null;
+		}
+		// shortest first, so the intersection shrinks as fast as it can
+		lists.sort((a, b) -> Integer.compare(a.length, b.length));
+		int[] candidates = lists.get(0);
+		for (int i = 1; i < lists.size() && candidates.length > 0; i++){
+			candidates = Trigrams.intersect(candidates, lists.get(i));
+		}
+		return candidates;
+	}
+
+	/**
+	 * Positions of the elements having one trigram, while the index is built.
+	 */
+	private static final class Posting {
+
+		private int[] positions = new int[4];
+
+		private int size;
+
+		private void add(int p){
+			if (size == positions.length){
+				positions = Arrays.copyOf(positions, size * 2);
+			}
+			positions[size++] = p;
+		}
+
+		private int[] toArray(){
+			return Arrays.copyOf(positions, size);
+		}
+	}
+
+	private static boolean matches(String key, String[] terms, String excluded){
+		if (excluded != null && key.contains(excluded)){
+			return false;
+		}
+		for (String term : terms){
+			if (!key.contains(term)){
+				return false;
+			}
+		}
+		return true;
+	}
+}
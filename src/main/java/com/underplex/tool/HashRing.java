@@ -0,0 +1,430 @@
+package com.underplex.tool;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * An implementation of {@code Ring<E>} backed by a hash map from each element to a node in a circular, doubly-linked list.
+ * <p>
+ * Unlike {@code ArrayRing}, membership tests, {@code next}, {@code previous}, {@code remove}, {@code makeFirst} and adding at either end
+ * all take constant time. Methods that work with indices ({@code get}, {@code indexOf} and {@code add(int, E)}) walk the ring from
+ * whichever end is closer and so take linear time.
+ * <p>
+ * Elements must have well-behaved {@code hashCode} and {@code equals} methods, and must not change in ways affecting either while in the ring.
+ * @see com.underplex.tool.Ring
+ *
+ * @author Brandon Irvine
+ */
+public class HashRing<E> implements Ring<E>, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Maps each element to its node. Never null.
+	 */
+	private transient HashMap<E, Node<E>> nodes;
+
+	/**
+	 * The first node of the ring, or {@code null} iff the ring is empty.
+	 */
+	private transient Node<E> head;
+
+	public HashRing(){
+		this.nodes = new HashMap<E, Node<E>>();
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#add(int, E)
+	 */
+	@Override
+	public final boolean add(int index, E element){
+		if ((index < 0 || index > size())){
+			throw new IndexOutOfBoundsException();
+		} else if (element == null){
+			throw new NullPointerException();
+		} else if (nodes.containsKey(element)){
+			return false;
+		}
+		if (index == size()){
+			return addLast(element);
+		}
+		// find the successor before create changes the size, which nodeAt uses to pick the nearer end
+		Node<E> successor = nodeAt(index);
+		Node<E> node = create(element);
+		linkBefore(node, successor);
+		if (index == 0){
+			head = node;
+		}
+		return true;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#addFirst(E)
+	 */
+	@Override
+	public final boolean addFirst(E element){
+		if (!addLast(element)){
+			return false;
+		}
+		// the new last element sits right before the head, so moving the head back one makes it first
+		head = head.prev;
+		return true;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#addLast(E)
+	 */
+	@Override
+	public final boolean addLast(E element){
+		if (element == null){
+			throw new NullPointerException();
+		} else if (nodes.containsKey(element)){
+			return false;
+		}
+		Node<E> node = create(element);
+		if (head == null){
+			node.next = node;
+			node.prev = node;
+			head = node;
+		} else {
+			linkBefore(node, head);
+		}
+		return true;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#makeFirst(E)
+	 */
+	@Override
+	public final boolean makeFirst(E element){
+		if (element == null){
+			throw new NullPointerException();
+		}
+		Node<E> node = nodes.get(element);
+		if (node == null){
+			throw new IllegalArgumentException();
+		} else if (node != head){
+			head = node;
+			return true;
+		}
+		return false;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#clear()
+	 */
+	@Override
+	public final void clear(){
+		for (Node<E> node : nodes.values()){
+			node.removed = true;
+			node.next = null;
+			node.prev = null;
+		}
+		nodes.clear();
+		head = null;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#getFirst()
+	 */
+	@Override
+	public final E getFirst(){
+		if (head == null){
+			return null;
+		}
+		return head.element;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#getLast()
+	 */
+	@Override
+	public final E getLast(){
+		if (head == null){
+			return null;
+		}
+		return head.prev.element;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#get(int)
+	 */
+	@Override
+	public final E get(int index){
+		if ((index < 0 || index >= size())){
+			throw new IndexOutOfBoundsException();
+		}
+		return nodeAt(index).element;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#indexOf(E)
+	 */
+	@Override
+	public final int indexOf(E element){
+		Node<E> node = (element == null) ? null : nodes.get(element);
+		if (node == null){
+			return -1;
+		}
+		int i = 0;
+		for (Node<E> n = head; n != node; n = n.next){
+			i++;
+		}
+		return i;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#isEmpty()
+	 */
+	@Override
+	public final boolean isEmpty(){
+		return nodes.isEmpty();
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#next(E)
+	 */
+	@Override
+	public final E next(E previousElement){
+		if (previousElement == null){
+			throw new NullPointerException();
+		}
+		Node<E> node = nodes.get(previousElement);
+		if (node == null){
+			return null;
+		}
+		return node.next.element;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#previous(E)
+	 */
+	@Override
+	public final E previous(E nextElement){
+		if (nextElement == null){
+			throw new NullPointerException();
+		}
+		Node<E> node = nodes.get(nextElement);
+		if (node == null){
+			return null;
+		}
+		return node.prev.element;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#remove(E)
+	 */
+	@Override
+	public final boolean remove(E element){
+		if (element == null){
+			throw new NullPointerException();
+		}
+		Node<E> node = nodes.remove(element);
+		if (node == null){
+			return false;
+		}
+		// the removed node keeps its links so that cursors left on it can find their way back into the ring
+		node.removed = true;
+		if (nodes.isEmpty()){
+			head = null;
+			node.next = null;
+			node.prev = null;
+		} else {
+			node.prev.next = node.next;
+			node.next.prev = node.prev;
+			if (node == head){
+				head = node.next;
+			}
+		}
+		return true;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#contains(E)
+	 */
+	@Override
+	public final boolean contains(E element){
+		return element != null && nodes.containsKey(element);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#size()
+	 */
+	@Override
+	public final int size(){
+		return nodes.size();
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#toList()
+	 */
+	@Override
+	public final List<E> toList(){
+		List<E> list = new ArrayList<E>(size());
+		if (head != null){
+			Node<E> n = head;
+			do {
+				list.add(n.element);
+				n = n.next;
+			} while (n != head);
+		}
+		return list;
+	}
+
+	/**
+	 * Returns a new cursor positioned at the first element of this ring.
+	 * <p>
+	 * The cursor holds the node of its element, so every move takes constant time and is exact however elements are removed.
+	 * @see com.underplex.tool.Ring#cursor()
+	 */
+	@Override
+	public final RingCursor<E> cursor(){
+		return new NodeCursor();
+	}
+
+	/**
+	 * Creates a node for the element and registers it. The node is not yet linked into the ring.
+	 */
+	private Node<E> create(E element){
+		Node<E> node = new Node<E>(element);
+		nodes.put(element, node);
+		return node;
+	}
+
+	/**
+	 * Links {@code node} into the ring immediately before {@code successor}.
+	 */
+	private static <E> void linkBefore(Node<E> node, Node<E> successor){
+		node.next = successor;
+		node.prev = successor.prev;
+		successor.prev.next = node;
+		successor.prev = node;
+	}
+
+	/**
+	 * Returns the node at the specified index, walking from whichever end of the ring is closer.
+	 * <p>
+	 * The index must already have been checked.
+	 */
+	private Node<E> nodeAt(int index){
+		Node<E> n = head;
+		if (index <= size() / 2){
+			for (int i = 0; i < index; i++){
+				n = n.next;
+			}
+		} else {
+			for (int i = size(); i > index; i--){
+				n = n.prev;
+			}
+		}
+		return n;
+	}
+
+	/**
+	 * Writes the size followed by each element in order, rather than the nodes, whose links would otherwise be written recursively.
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeInt(size());
+		if (head != null){
+			Node<E> n = head;
+			do {
+				out.writeObject(n.element);
+				n = n.next;
+			} while (n != head);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		int size = in.readInt();
+		this.nodes = new HashMap<E, Node<E>>();
+		for (int i = 0; i < size; i++){
+			addLast((E) in.readObject());
+		}
+	}
+
+	/**
+	 * Cursor holding the node of its element.
+	 * <p>
+	 * A removed node still points to the nodes that were its neighbors when it was removed. Each of those was in the ring at that moment and so
+	 * was removed later, if at all, which means following the links from a removed node always ends at a node still in the ring, or at
+	 * {@code null} if the ring has been emptied since.
+	 */
+	private final class NodeCursor implements RingCursor<E> {
+
+		private Node<E> node = head;
+
+		@Override
+		public E current(){
+			return (node == null || node.removed) ? null : node.element;
+		}
+
+		@Override
+		public E advance(){
+			Node<E> n = node;
+			if (n != null){
+				n = n.next;
+				while (n != null && n.removed){
+					n = n.next;
+				}
+			}
+			node = (n == null) ? head : n;
+			return current();
+		}
+
+		@Override
+		public E retreat(){
+			Node<E> n = node;
+			if (n != null){
+				if (n.removed){
+					n = n.prev;
+					while (n != null && n.removed){
+						n = n.prev;
+					}
+				} else {
+					n = n.prev;
+				}
+			}
+			node = (n == null) ? ((head == null) ? null : head.prev) : n;
+			return current();
+		}
+
+		@Override
+		public void moveTo(E element){
+			if (element == null){
+				throw new NullPointerException();
+			}
+			Node<E> n = nodes.get(element);
+			if (n == null){
+				throw new IllegalArgumentException();
+			}
+			node = n;
+		}
+	}
+
+	/**
+	 * A single link in the ring.
+	 */
+	private static final class Node<E> {
+
+		private final E element;
+		private Node<E> next;
+		private Node<E> prev;
+
+		/**
+		 * Set once the node has been taken out of the ring.
+		 */
+		private boolean removed;
+
+		private Node(E element){
+			this.element = element;
+		}
+	}
+}
@@ -0,0 +1,141 @@
+package com.underplex.tool;
+
+/**
+ * A {@code RingCursor<E>} for any ring, which remembers the index of its element as well as the element itself.
+ * <p>
+ * While the element is still at the remembered index, moving the cursor only calls {@code size} and {@code get}, so for rings with constant-time
+ * indexing it takes constant time. Otherwise the element is found again with {@code indexOf}.
+ * <p>
+ * The cursor also remembers the elements on either side of its element when it last found it. If the element is removed, the cursor
+ * resumes from whichever of those neighbors is still in the ring, so removing other elements, before or after the gap, doesn't disturb it.
+ * Only if both neighbors have gone too does it fall back to the remembered index.
+ *
+ * @author Brandon Irvine
+ */
+final class IndexedRingCursor<E> implements RingCursor<E> {
+
+	private final Ring<E> ring;
+
+	/**
+	 * The element at this cursor, or the element that was removed from under it, or {@code null} if the cursor has no position.
+	 */
+	private E element;
+
+	/**
+	 * Last known index of {@code element}.
+	 */
+	private int index;
+
+	/**
+	 * Elements just before and just after {@code element} when it was last found, or {@code null} if the cursor has no position.
+	 */
+	private E before;
+
+	private E after;
+
+	IndexedRingCursor(Ring<E> ring){
+		this.ring = ring;
+		if (ring.size() > 0){
+			moveToIndex(0);
+		}
+	}
+
+	@Override
+	public E current(){
+		return locate() >= 0 ? element : null;
+	}
+
+	@Override
+	public E advance(){
+		int size = ring.size();
+		if (size == 0){
+			element = null;
+			return null;
+		}
+		int i = locate();
+		int target;
+		if (i >= 0){
+			target = (i == size - 1) ? 0 : i + 1;
+		} else if (element != null){
+			target = gapAfter(size);
+		} else {
+			target = 0;
+		}
+		return moveToIndex(target);
+	}
+
+	@Override
+	public E retreat(){
+		int size = ring.size();
+		if (size == 0){
+			element = null;
+			return null;
+		}
+		int i = locate();
+		int target;
+		if (i >= 0){
+			target = (i == 0) ? size - 1 : i - 1;
+		} else if (element != null){
+			int after = gapAfter(size);
+			target = (after == 0) ? size - 1 : after - 1;
+		} else {
+			target = size - 1;
+		}
+		return moveToIndex(target);
+	}
+
+	@Override
+	public void moveTo(E element){
+		if (element == null){
+			throw new NullPointerException();
+		}
+		int i = ring.indexOf(element);
+		if (i < 0){
+			throw new IllegalArgumentException();
+		}
+		moveToIndex(i);
+	}
+
+	/**
+	 * Returns the current index of {@code element}, or -1 if it has no position or has been removed.
+	 */
+	private int locate(){
+		if (element == null){
+			return -1;
+		} else if (index < ring.size() && element.equals(ring.get(index))){
+			moveToIndex(index);
+			return index;
+		}
+		int i = ring.indexOf(element);
+		if (i >= 0){
+			moveToIndex(i);
+		}
+		return i;
+	}
+
+	/**
+	 * Returns the index of the element now following the gap left by the removed {@code element}, working from whichever remembered
+	 * neighbor is still in the ring.
+	 */
+	private int gapAfter(int size){
+		int i = (after == null) ? -1 : ring.indexOf(after);
+		if (i >= 0){
+			return i;
+		}
+		i = (before == null) ? -1 : ring.indexOf(before);
+		if (i >= 0){
+			return (i == size - 1) ? 0 : i + 1;
+		}
+		// the element that followed the removed one has slid into its index
+		return (index < size) ? index : 0;
+	}
+
+	private E moveToIndex(int target){
+		int size = ring.size();
+		element = ring.get(target);
+		index = target;
+		before = ring.get((target == 0) ? size - 1 : target - 1);
+		after = ring.get((target == size - 1) ? 0 : target + 1);
+		return element;
+	}
+}
@@ -0,0 +1,400 @@
+package com.underplex.tool;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.NoSuchElementException;
+
+/**
+ * A ring of {@code int} values, such as player or seat ids.
+ * <p>
+ * This follows the same rules as {@code Ring<E>}: values are ordered and indexed like a list, no value may appear twice, the first value
+ * follows the last one, and making a value first doesn't change the relative positions of any values. Since values are stored in a
+ * primitive array, no method boxes or allocates except when the array has to grow.
+ * <p>
+ * Values are kept in one contiguous block of the array along with the offset of the first value, so {@code makeFirst} and {@code rotate}
+ * only move the offset. Looking a value up scans the block, which for the ring sizes of most games is faster than hashing.
+ * <p>
+ * Because there is no {@code null} to signal a missing value, methods that {@code Ring<E>} would have return {@code null} throw an exception instead.
+ * @see com.underplex.tool.Ring
+ *
+ * @author Brandon Irvine
+ */
+public class IntRing implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final int DEFAULT_CAPACITY = 8;
+
+	/**
+	 * Values in stored order, occupying positions 0 to {@code size - 1}. The length is always at least 1.
+	 */
+	private transient int[] values;
+
+	/**
+	 * Position in {@code values} of the first value of this ring.
+	 */
+	private transient int rotation;
+
+	private transient int size;
+
+	public IntRing(){
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates an empty ring with room for {@code initialCapacity} values before its array needs to grow.
+	 * @param initialCapacity - the initial capacity of the ring
+	 * @throws IllegalArgumentException iff the capacity is negative
+	 */
+	public IntRing(int initialCapacity){
+		if (initialCapacity < 0){
+			throw new IllegalArgumentException();
+		}
+		this.values = new int[Math.max(1, initialCapacity)];
+	}
+
+	/**
+	 * Inserts the specified value at the specified position in this ring, shifting the value currently at that position (if any) and any subsequent
+	 * values further along the ring.
+	 * @param index - index at which the specified value is to be inserted
+	 * @param value - value to be inserted
+	 * @return {@code true} iff the value was not already present and was added to this ring
+	 * @throws IndexOutOfBoundsException iff the index is out of range (index < 0 || index > size())
+	 */
+	public final boolean add(int index, int value){
+		if ((index < 0 || index > size)){
+			throw new IndexOutOfBoundsException();
+		} else if (find(value) >= 0){
+			return false;
+		}
+		insert(index, value);
+		return true;
+	}
+
+	/**
+	 * Inserts the specified value at the first position of this ring.
+	 * @param value - the value to add
+	 * @return {@code true} iff the value was not already present and was added to this ring
+	 */
+	public final boolean addFirst(int value){
+		if (find(value) >= 0){
+			return false;
+		}
+		insert(0, value);
+		return true;
+	}
+
+	/**
+	 * Inserts the specified value at the last position of this ring.
+	 * @param value - the value to add
+	 * @return {@code true} iff the value was not already present and was added to this ring
+	 */
+	public final boolean addLast(int value){
+		if (find(value) >= 0){
+			return false;
+		}
+		insert(size, value);
+		return true;
+	}
+
+	/**
+	 * Gives the specified value, which should already be in this ring, the index of 0, without changing relative positions.
+	 * @param value - value to be made first
+	 * @return {@code true} iff the ordering of the ring changed
+	 * @throws IllegalArgumentException iff this ring does not already contain the specified value
+	 */
+	public final boolean makeFirst(int value){
+		int i = find(value);
+		if (i < 0){
+			throw new IllegalArgumentException();
+		} else if (i != 0){
+			rotation = position(i);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Shifts which value is first by {@code distance} places along the ring, so that the value that had index {@code distance}
+	 * (taken modulo the size) now has index 0. A negative distance rotates the other way.
+	 * @param distance - number of places to rotate
+	 * @return {@code true} iff the ordering of the ring changed
+	 */
+	public final boolean rotate(int distance){
+		if (size == 0){
+			return false;
+		}
+		int shift = distance % size;
+		if (shift < 0){
+			shift += size;
+		}
+		if (shift == 0){
+			return false;
+		}
+		rotation = position(shift);
+		return true;
+	}
+
+	/**
+	 * Removes all of the values from this ring.
+	 */
+	public final void clear(){
+		rotation = 0;
+		size = 0;
+	}
+
+	/**
+	 * Returns the first value of this ring.
+	 * @return first value
+	 * @throws NoSuchElementException iff this ring is empty
+	 */
+	public final int getFirst(){
+		if (size == 0){
+			throw new NoSuchElementException();
+		}
+		return values[rotation];
+	}
+
+	/**
+	 * Returns the last value of this ring.
+	 * @return last value
+	 * @throws NoSuchElementException iff this ring is empty
+	 */
+	public final int getLast(){
+		if (size == 0){
+			throw new NoSuchElementException();
+		}
+		return values[position(size - 1)];
+	}
+
+	/**
+	 * Returns the value of this ring with the specified index.
+	 * @return value at specified index
+	 * @throws IndexOutOfBoundsException iff the index is out of range (index < 0 || index >= size())
+	 */
+	public final int get(int index){
+		if ((index < 0 || index >= size)){
+			throw new IndexOutOfBoundsException();
+		}
+		return values[position(index)];
+	}
+
+	/**
+	 * Returns the index of the specified value in this ring, or -1 if this ring does not contain it.
+	 * @return index of the specified value or -1
+	 */
+	public final int indexOf(int value){
+		return find(value);
+	}
+
+	/**
+	 * Returns {@code true} iff this ring contains no values.
+	 * @return {@code true} iff this ring contains no values
+	 */
+	public final boolean isEmpty(){
+		return size == 0;
+	}
+
+	/**
+	 * Returns the value in the ring after {@code previousValue}. If it is the only value, it is returned itself.
+	 * @param previousValue - the previous value
+	 * @return the value with the next position after the specified value
+	 * @throws IllegalArgumentException iff this ring does not contain the specified value
+	 */
+	public final int next(int previousValue){
+		int p = storedPosition(previousValue) + 1;
+		return values[p == size ? 0 : p];
+	}
+
+	/**
+	 * Returns the value in the ring before {@code nextValue}. If it is the only value, it is returned itself.
+	 * @param nextValue - the next value
+	 * @return the value with the previous position before the specified value
+	 * @throws IllegalArgumentException iff this ring does not contain the specified value
+	 */
+	public final int previous(int nextValue){
+		int p = storedPosition(nextValue);
+		return values[p == 0 ? size - 1 : p - 1];
+	}
+
+	/**
+	 * Removes the specified value from this ring, if it is present.
+	 * @param value - value to be removed
+	 * @return {@code true} iff this ring contained the specified value
+	 */
+	public final boolean remove(int value){
+		int p = scan(value);
+		if (p < 0){
+			return false;
+		}
+		System.arraycopy(values, p + 1, values, p, size - 1 - p);
+		size--;
+		if (size == 0){
+			rotation = 0;
+		} else if (rotation > p){
+			rotation--;
+		} else if (rotation == p && p == size){
+			// the first value was stored last, so the value following it is stored first
+			rotation = 0;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns {@code true} iff this ring contains the specified value.
+	 * @return {@code true} iff this ring contains the specified value
+	 */
+	public final boolean contains(int value){
+		return scan(value) >= 0;
+	}
+
+	/**
+	 * Returns the number of values in this ring.
+	 * @return the number of values in this ring
+	 */
+	public final int size(){
+		return size;
+	}
+
+	/**
+	 * Returns the values in order as a new array, with the first value at 0.
+	 * @return array of values in order
+	 */
+	public final int[] toArray(){
+		int[] array = new int[size];
+		int tail = size - rotation;
+		System.arraycopy(values, rotation, array, 0, tail);
+		System.arraycopy(values, 0, array, tail, rotation);
+		return array;
+	}
+
+	@Override
+	public String toString(){
+		return Arrays.toString(toArray());
+	}
+
+	/**
+	 * Returns a ring of the first {@code length} values in the array, in order, which takes the array over as its own.
+	 * <p>
+	 * This fills the ring in one pass, checking for duplicates with a single hash set, rather than scanning the ring for each value as
+	 * {@code addLast} does.
+	 * @throws IllegalArgumentException iff a value appears twice
+	 */
+	static IntRing of(int[] values, int length){
+		IntRing r = new IntRing(0);
+		if (!r.adopt(values, length)){
+			throw new IllegalArgumentException("duplicate value");
+		}
+		return r;
+	}
+
+	/**
+	 * Makes the first {@code length} values in the array the values of this ring, returning {@code false}, and leaving this ring empty,
+	 * iff a value appears twice.
+	 */
+	private boolean adopt(int[] v, int length){
+		HashSet<Integer> seen = new HashSet<Integer>(length * 2);
+		for (int i = 0; i < length; i++){
+			if (!seen.add(v[i])){
+				return false;
+			}
+		}
+		this.values = (v.length == 0) ? new int[1] : v;
+		this.rotation = 0;
+		this.size = length;
+		return true;
+	}
+
+	/**
+	 * Returns the position in {@code values} of the value with the specified index.
+	 */
+	private int position(int index){
+		int p = rotation + index;
+		return p >= size ? p - size : p;
+	}
+
+	/**
+	 * Returns the position in {@code values} of the value, or -1 if it isn't present.
+	 */
+	private int scan(int value){
+		int[] v = values;
+		for (int p = 0; p < size; p++){
+			if (v[p] == value){
+				return p;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the position in {@code values} of a value that must be present.
+	 */
+	private int storedPosition(int value){
+		int p = scan(value);
+		if (p < 0){
+			throw new IllegalArgumentException();
+		}
+		return p;
+	}
+
+	/**
+	 * Returns the index of the value, or -1 if it isn't present.
+	 */
+	private int find(int value){
+		int p = scan(value);
+		if (p < 0){
+			return -1;
+		}
+		return p >= rotation ? p - rotation : p - rotation + size;
+	}
+
+	/**
+	 * Inserts the value at the specified index, which must already have been checked.
+	 * <p>
+	 * The value is stored just before whatever value will follow it.
+	 */
+	private void insert(int index, int value){
+		if (size == values.length){
+			values = Arrays.copyOf(values, values.length * 2);
+		}
+		int p = rotation + index;
+		if (p > size){
+			p -= size;
+		}
+		System.arraycopy(values, p, values, p + 1, size - p);
+		values[p] = value;
+		size++;
+		if (index == 0){
+			rotation = p;
+		} else if (rotation >= p){
+			rotation++;
+		}
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeInt(size);
+		for (int i = 0; i < size; i++){
+			out.writeInt(values[position(i)]);
+		}
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		int length = in.readInt();
+		if (length < 0){
+			throw new IOException("negative size");
+		}
+		int[] v = new int[Math.max(DEFAULT_CAPACITY, length)];
+		for (int i = 0; i < length; i++){
+			v[i] = in.readInt();
+		}
+		if (!adopt(v, length)){
+			throw new IOException("duplicate value");
+		}
+	}
+}
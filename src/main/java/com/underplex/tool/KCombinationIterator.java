@@ -0,0 +1,147 @@
+package com.underplex.tool;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Iterator over every combination of {@code k} elements from a list, in lexicographic order of their indices.
+ * <p>
+ * The only state kept between combinations is an array of {@code k} indices, so memory use doesn't grow with the number of combinations.
+ * Each call to {@code next} builds a new {@code Set} which the caller is free to keep or drop.
+ *
+ * @author Brandon Irvine
+ */
+final class KCombinationIterator<T> implements Iterator<Set<T>> {
+
+	private final List<T> pool;
+
+	/**
+	 * Indices of the next combination to return, or {@code null} once every combination has been returned.
+	 */
+	private int[] indices;
+
+	/**
+	 * Creates an iterator over the combinations of {@code k} elements of {@code pool}, where {@code 0 <= k <= pool.size()}.
+	 */
+	KCombinationIterator(List<T> pool, int k){
+		this.pool = pool;
+		this.indices = first(k);
+	}
+
+	@Override
+	public boolean hasNext(){
+		return indices != null;
+	}
+
+	@Override
+	public Set<T> next(){
+		if (indices == null){
+			throw new NoSuchElementException();
+		}
+		Set<T> set = new HashSet<T>();
+		for (int i : indices){
+			set.add(pool.get(i));
+		}
+		if (!advance(indices, pool.size())){
+			indices = null;
+		}
+		return set;
+	}
+
+	/**
+	 * Returns the indices of the first combination of {@code k} indices, that is, 0 to {@code k - 1}.
+	 */
+	static int[] first(int k){
+		int[] c = new int[k];
+		for (int i = 0; i < k; i++){
+			c[i] = i;
+		}
+		return c;
+	}
+
+	/**
+	 * Changes {@code c}, a strictly increasing array of indices less than {@code n}, into the next such array in lexicographic order.
+	 * <p>
+	 * Returns {@code false}, leaving {@code c} unchanged, if it was already the last one.
+	 */
+	static boolean advance(int[] c, int n){
+		int k = c.length;
+		int i = k - 1;
+		while (i >= 0 && c[i] == n - k + i){
+			i--;
+		}
+		if (i < 0){
+			return false;
+		}
+		c[i]++;
+		for (int j = i + 1; j < k; j++){
+			c[j] = c[j - 1] + 1;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the number of combinations of {@code k} elements from {@code n}, or 0 if {@code k < 0 || k > n}.
+	 * @throws ArithmeticException iff the number doesn't fit in a {@code long}
+	 */
+	static long binomial(int n, int k){
+		if (k < 0 || k > n){
+			return 0;
+		}
+		k = Math.min(k, n - k);
+		long r = 1;
+		for (int i = 1; i <= k; i++){
+			// r * m / i is exact, so dividing out their common factor first only overflows if the result does
+			long m = n - k + i;
+			long g = gcd(r, i);
+			r = Math.multiplyExact(r / g, m / (i / g));
+		}
+		return r;
+	}
+
+	/**
+	 * Sets {@code c} to the indices of the combination of {@code c.length} indices less than {@code n} with lexicographic rank {@code rank},
+	 * which must be less than {@code binomial(n, c.length)}.
+	 */
+	static void unrank(long rank, int n, int[] c){
+		int k = c.length;
+		int x = 0;
+		for (int i = 0; i < k; i++){
+			// skip every combination with a smaller index at position i
+			long count;
+			while (rank >= (count = binomial(n - x - 1, k - i - 1))){
+				rank -= count;
+				x++;
+			}
+			c[i] = x++;
+		}
+	}
+
+	/**
+	 * Returns the lexicographic rank of {@code c}, a strictly increasing array of indices less than {@code n}.
+	 */
+	static long rank(int[] c, int n){
+		int k = c.length;
+		long rank = 0;
+		int x = 0;
+		for (int i = 0; i < k; i++){
+			for (; x < c[i]; x++){
+				rank += binomial(n - x - 1, k - i - 1);
+			}
+			x++;
+		}
+		return rank;
+	}
+
+	private static long gcd(long a, long b){
+		while (b != 0){
+			long t = a % b;
+			a = b;
+			b = t;
+		}
+		return a;
+	}
+}
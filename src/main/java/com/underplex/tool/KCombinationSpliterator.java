@@ -0,0 +1,118 @@
+package com.underplex.tool;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over the combinations of {@code k} elements from a list, in the same order as {@code KCombinationIterator}.
+ * <p>
+ * Each spliterator covers a range of lexicographic ranks, and splitting hands the first half of the range to a new spliterator. A
+ * spliterator finds its first combination by unranking only when it's first advanced, so splitting is cheap and the parts share nothing
+ * but the read-only list.
+ *
+ * @author Brandon Irvine
+ */
+final class KCombinationSpliterator<T> implements Spliterator<Set<T>> {
+
+	private final List<T> pool;
+
+	private final int k;
+
+	/**
+	 * Rank of the next combination to return.
+	 */
+	private long origin;
+
+	/**
+	 * One past the rank of the last combination to return.
+	 */
+	private final long fence;
+
+	/**
+	 * Indices of the combination with rank {@code origin}, or {@code null} if they haven't been found yet.
+	 */
+	private int[] indices;
+
+	/**
+	 * Creates a spliterator over the combinations of {@code k} elements of {@code pool}, where {@code 0 <= k <= pool.size()}.
+	 * @throws ArithmeticException iff there are more combinations than fit in a {@code long}
+	 */
+	KCombinationSpliterator(List<T> pool, int k){
+		this(pool, k, 0, KCombinationIterator.binomial(pool.size(), k), null);
+	}
+
+	/**
+	 * Creates a spliterator over the combinations of {@code k} elements of {@code pool} with ranks from {@code origin} up to but not
+	 * including {@code fence}, which must already have been checked.
+	 */
+	KCombinationSpliterator(List<T> pool, int k, long origin, long fence){
+		this(pool, k, origin, fence, null);
+	}
+
+	private KCombinationSpliterator(List<T> pool, int k, long origin, long fence, int[] indices){
+		this.pool = pool;
+		this.k = k;
+		this.origin = origin;
+		this.fence = fence;
+		this.indices = indices;
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super Set<T>> action){
+		if (origin >= fence){
+			return false;
+		}
+		action.accept(take());
+		return true;
+	}
+
+	@Override
+	public void forEachRemaining(Consumer<? super Set<T>> action){
+		while (origin < fence){
+			action.accept(take());
+		}
+	}
+
+	@Override
+	public Spliterator<Set<T>> trySplit(){
+		long mid = origin + (fence - origin) / 2;
+		if (mid == origin){
+			return null;
+		}
+		Spliterator<Set<T>> prefix = new KCombinationSpliterator<T>(pool, k, origin, mid, indices);
+		origin = mid;
+		indices = null;
+		return prefix;
+	}
+
+	@Override
+	public long estimateSize(){
+		return fence - origin;
+	}
+
+	@Override
+	public int characteristics(){
+		return ORDERED | DISTINCT | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+	}
+
+	/**
+	 * Returns the combination with rank {@code origin}, which must be less than {@code fence}, and moves on to the next one.
+	 */
+	private Set<T> take(){
+		if (indices == null){
+			indices = new int[k];
+			KCombinationIterator.unrank(origin, pool.size(), indices);
+		}
+		Set<T> set = new HashSet<T>();
+		for (int i : indices){
+			set.add(pool.get(i));
+		}
+		if (++origin < fence){
+			KCombinationIterator.advance(indices, pool.size());
+		}
+		return set;
+	}
+}
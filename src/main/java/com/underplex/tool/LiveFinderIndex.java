@@ -0,0 +1,292 @@
+package com.underplex.tool;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Collection that keeps a trigram index of its elements up to date as they're added and removed, for answering the same searches as
+ * {@code Finder} against its current contents.
+ * <p>
+ * Like {@code FinderIndex}, each element's upper case {@code toString} is kept along with, for each trigram, the elements that have it.
+ * Adding or removing an element only touches the trigrams of its own key. A search goes through the elements having the rarest trigram of
+ * the search terms, newest first, and stops at the first that matches. Elements are ordered by when they were added, so like
+ * {@link Finder#find(Collection, String...)} on a list kept in that order, searches return the last match: the most recently added.
+ * <p>
+ * No element may be {@code null} or appear twice, and an element's {@code toString} shouldn't change while it's in the collection.
+ * <p>
+ * Updates are serialized, so there is in effect a single writer at a time, while searches and iteration take no lock and can run in any
+ * number of threads alongside them. A search running at the same time as an update may or may not see that update, but never returns an
+ * element that doesn't match or that was removed before the search began. Iterators are weakly consistent, like those of the concurrent
+ * collections.
+ * @see com.underplex.tool.FinderIndex
+ *
+ * @author Brandon Irvine
+ */
+public class LiveFinderIndex<T> extends AbstractCollection<T> {
+
+	private final Object lock = new Object();
+
+	/**
+	 * Sequence of each element, increasing in the order they were added.
+	 */
+	private final ConcurrentHashMap<T, Long> sequences = new ConcurrentHashMap<T, Long>();
+
+	/**
+	 * Element and key for each sequence in use.
+	 */
+	private final ConcurrentHashMap<Long, Entry<T>> entries = new ConcurrentHashMap<Long, Entry<T>>();
+
+	/**
+	 * Every sequence in use, in order.
+	 */
+	private final ConcurrentSkipListSet<Long> all = new ConcurrentSkipListSet<Long>();
+
+	/**
+	 * Sequences of the elements whose keys have each trigram.
+	 */
+	private final ConcurrentHashMap<Long, Posting> postings = new ConcurrentHashMap<Long, Posting>();
+
+	/**
+	 * Sequence for the next element added, only changed while holding {@code lock}.
+	 */
+	private long next;
+
+	/**
+	 * Creates an empty index.
+	 */
+	public LiveFinderIndex(){
+		// empty
+	}
+
+	/**
+	 * Creates an index holding the elements of {@code collection}, added in its iteration order.
+	 * @param collection - elements to add
+	 */
+	public LiveFinderIndex(Collection<? extends T> collection){
+		addAll(collection);
+	}
+
+	/**
+	 * Adds the element as the newest, unless it's already present.
+	 * @param t - element to add
+	 * @return {@code true} iff the element was added
+	 * @throws NullPointerException iff the element is {@code null}
+	 */
+	@Override
+	public boolean add(T t){
+		if (t == null){
+			throw new NullPointerException();
+		}
+		synchronized (lock){
+			if (sequences.containsKey(t)){
+				return false;
+			}
+			Long sequence = next++;
+			Entry<T> entry = new Entry<T>(t, t.toString().toUpperCase());
+			// visible to searches only once it can be looked up
+			entries.put(sequence, entry);
+			sequences.put(t, sequence);
+			for (long trigram : entry.trigrams){
+				postings.computeIfAbsent(trigram, x -> new Posting()).add(sequence);
+			}
+			all.add(sequence);
+			return true;
+		}
+	}
+
+	/**
+	 * Removes the element, if it's present.
+	 * @param o - element to remove
+	 * @return {@code true} iff the element was present
+	 */
+	@Override
+	public boolean remove(Object o){
+		if (o == null){
+			return false;
+		}
+		synchronized (lock){
+			Long sequence = sequences.get(o);
+			if (sequence == null){
+				return false;
+			}
+			Entry<T> entry = entries.get(sequence);
+			all.remove(sequence);
+			for (long trigram : entry.trigrams){
+				Posting p = postings.get(trigram);
+				p.remove(sequence);
+				if (p.size == 0){
+					postings.remove(trigram);
+				}
+			}
+			sequences.remove(o);
+			entries.remove(sequence);
+			return true;
+		}
+	}
+
+	@Override
+	public boolean contains(Object o){
+		return o != null && sequences.containsKey(o);
+	}
+
+	@Override
+	public int size(){
+		return sequences.size();
+	}
+
+	@Override
+	public void clear(){
+		synchronized (lock){
+			all.clear();
+			postings.clear();
+			sequences.clear();
+			entries.clear();
+		}
+	}
+
+	/**
+	 * Returns an Iterator over the elements in the order they were added. Removing through it removes from the index.
+	 */
+	@Override
+	public Iterator<T> iterator(){
+		Iterator<Long> ids = all.iterator();
+		return new Iterator<T>(){
+
+			private Entry<T> pending;
+
+			private Entry<T> last;
+
+			@Override
+			public boolean hasNext(){
+				while (pending == null && ids.hasNext()){
+					pending = entries.get(ids.next());
+				}
+				return pending != null;
+			}
+
+			@Override
+			public T next(){
+				if (!hasNext()){
+					throw new NoSuchElementException();
+				}
+				last = pending;
+				pending = null;
+				return last.element;
+			}
+
+			@Override
+			public void remove(){
+				if (last == null){
+					throw new IllegalStateException();
+				}
+				LiveFinderIndex.this.remove(last.element);
+				last = null;
+			}
+		};
+	}
+
+	/**
+	 * Returns the most recently added element whose {@code toString} contains every one of the {@code search} strings, or {@code null} if
+	 * there isn't one.
+	 * <p>
+	 * Like {@link Finder#find(Collection, String...)}, this isn't case-sensitive.
+	 * @param search - String varargs that need to be found in the string, not case-sensitive
+	 * @return most recently added matching element or {@code null}
+	 */
+	public T find(String...search){
+		return findExcluding(null, search);
+	}
+
+	/**
+	 * Returns the most recently added element whose {@code toString} contains every one of the {@code search} strings but not
+	 * {@code without}, or {@code null} if there isn't one.
+	 * <p>
+	 * Like {@link Finder#findExcluding(String, Collection, String...)}, this isn't case-sensitive.
+	 * @param without - String that can't be present in returned element, not case-sensitive, or {@code null} to exclude nothing
+	 * @param search - String varargs that need to be found in the string, not case-sensitive
+	 * @return most recently added matching element or {@code null}
+	 */
+	public T findExcluding(String without, String...search){
+		String[] terms = new String[search.length];
+		for (int i = 0; i < terms.length; i++){
+			terms[i] = search[i].toUpperCase();
+		}
+		String excluded = without == null ? null : without.toUpperCase();
+
+		// every match has the rarest trigram of the terms, so only those elements need checking
+		ConcurrentSkipListSet<Long> candidates = all;
+		int fewest = Integer.MAX_VALUE;
+		for (String term : terms){
+			for (long trigram : Trigrams.of(term)){
+				Posting p = postings.get(trigram);
+				if (p == null){
+					return null;
+				} else if (p.size < fewest){
+					candidates = p.sequences;
+					fewest = p.size;
+				}
+			}
+		}
+		for (Iterator<Long> it = candidates.descendingIterator(); it.hasNext(); ){
+			Entry<T> entry = entries.get(it.next());
+			if (entry != null && entry.matches(terms, excluded)){
+				return entry.element;
+			}
+		}
+		return null;
+	}
+
+	private static final class Entry<T> {
+
+		private final T element;
+
+		private final String key;
+
+		private final long[] trigrams;
+
+		private Entry(T element, String key){
+			this.element = element;
+			this.key = key;
+			this.trigrams = Trigrams.of(key);
+		}
+
+		private boolean matches(String[] terms, String excluded){
+			if (excluded != null && key.contains(excluded)){
+				return false;
+			}
+			for (String term : terms){
+				if (!key.contains(term)){
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Sequences of the elements having one trigram, with a count kept alongside since counting a skip list takes linear time.
+	 */
+	private static final class Posting {
+
+		private final ConcurrentSkipListSet<Long> sequences = new ConcurrentSkipListSet<Long>();
+
+		/**
+		 * Number of sequences, only changed while holding the index's lock.
+		 */
+		private volatile int size;
+
+		private void add(Long sequence){
+			sequences.add(sequence);
+			size++;
+		}
+
+		private void remove(Long sequence){
+			sequences.remove(sequence);
+			size--;
+		}
+	}
+}
@@ -0,0 +1,205 @@
+package com.underplex.tool;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Spliterator over the permutations of the indices 0 to {@code n - 1}, in lexicographic order.
+ * <p>
+ * A permutation is held as an array of indices that is changed in place from one permutation to the next, and each is handed on through
+ * {@code view}, which may copy it into something else or pass the array itself along. Like {@code KCombinationSpliterator}, each
+ * spliterator covers a range of ranks and splits by halving it, with its own array found by unranking only when first advanced.
+ * <p>
+ * If there are more permutations than fit in a {@code long}, which happens once {@code n} is over 20, the spliterator doesn't split and
+ * simply runs until the last permutation.
+ *
+ * @author Brandon Irvine
+ */
+final class PermutationSpliterator<R> implements Spliterator<R> {
+
+	/**
+	 * Largest {@code n} with {@code n!} no more than {@code Long.MAX_VALUE}.
+	 */
+	static final int MAX_RANKED = 20;
+
+	private final int n;
+
+	private final Function<int[], ? extends R> view;
+
+	/**
+	 * Rank of the next permutation to return.
+	 */
+	private long origin;
+
+	/**
+	 * One past the rank of the last permutation to return, or {@code Long.MAX_VALUE} if there are too many to rank.
+	 */
+	private long fence;
+
+	/**
+	 * The permutation last returned if {@code started}, otherwise the one with rank {@code origin}, or {@code null} if it hasn't been found yet.
+	 */
+	private int[] indices;
+
+	private boolean started;
+
+	/**
+	 * Creates a spliterator over every permutation of {@code n} indices.
+	 */
+	PermutationSpliterator(int n, Function<int[], ? extends R> view){
+		this(n, view, 0, n <= MAX_RANKED ? factorial(n) : Long.MAX_VALUE, null, false);
+	}
+
+	private PermutationSpliterator(int n, Function<int[], ? extends R> view, long origin, long fence, int[] indices, boolean started){
+		this.n = n;
+		this.view = view;
+		this.origin = origin;
+		this.fence = fence;
+		this.indices = indices;
+		this.started = started;
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super R> action){
+		if (!step()){
+			return false;
+		}
+		action.accept(view.apply(indices));
+		return true;
+	}
+
+	@Override
+	public void forEachRemaining(Consumer<? super R> action){
+		while (step()){
+			action.accept(view.apply(indices));
+		}
+	}
+
+	@Override
+	public Spliterator<R> trySplit(){
+		long mid = origin + (fence - origin) / 2;
+		if (n > MAX_RANKED || mid == origin){
+			return null;
+		}
+		Spliterator<R> prefix = new PermutationSpliterator<R>(n, view, origin, mid, indices, started);
+		origin = mid;
+		indices = null;
+		started = false;
+		return prefix;
+	}
+
+	@Override
+	public long estimateSize(){
+		return fence - origin;
+	}
+
+	@Override
+	public int characteristics(){
+		return n <= MAX_RANKED ? ORDERED | SIZED | SUBSIZED | NONNULL : ORDERED | NONNULL;
+	}
+
+	/**
+	 * Moves {@code indices} on to the permutation with rank {@code origin} and counts it, returning {@code false} if there isn't one.
+	 * <p>
+	 * The array is only changed here, just before the next permutation is handed on, so a view that is the array itself stays valid until then.
+	 */
+	private boolean step(){
+		if (origin >= fence){
+			return false;
+		}
+		if (indices == null){
+			indices = new int[n];
+			unrank(origin, indices);
+		} else if (started && !advance(indices)){
+			fence = origin;
+			return false;
+		}
+		started = true;
+		origin++;
+		return true;
+	}
+
+	/**
+	 * Returns {@code n!}, which must fit in a {@code long}.
+	 */
+	static long factorial(int n){
+		long f = 1;
+		for (int i = 2; i <= n; i++){
+			f *= i;
+		}
+		return f;
+	}
+
+	/**
+	 * Changes {@code a} to the next permutation of its values in lexicographic order, returning {@code false}, with {@code a} unchanged, if it
+	 * was already the last one.
+	 */
+	static boolean advance(int[] a){
+		int i = a.length - 2;
+		while (i >= 0 && a[i] >= a[i + 1]){
+			i--;
+		}
+		if (i < 0){
+			return false;
+		}
+		int j = a.length - 1;
+		while (a[j] <= a[i]){
+			j--;
+		}
+		swap(a, i, j);
+		for (int l = i + 1, r = a.length - 1; l < r; l++, r--){
+			swap(a, l, r);
+		}
+		return true;
+	}
+
+	/**
+	 * Sets {@code a} to the permutation of 0 to {@code a.length - 1} with lexicographic rank {@code rank}, reading the rank as a Lehmer code
+	 * in the factorial number system.
+	 */
+	static void unrank(long rank, int[] a){
+		int n = a.length;
+		int[] digits = new int[n];
+		for (int radix = 1; radix <= n; radix++){
+			digits[n - radix] = (int) (rank % radix);
+			rank /= radix;
+		}
+		// each digit counts the unused indices smaller than the one chosen
+		boolean[] used = new boolean[n];
+		for (int i = 0; i < n; i++){
+			int v = 0;
+			for (int d = digits[i]; used[v] || d > 0; v++){
+				if (!used[v]){
+					d--;
+				}
+			}
+			used[v] = true;
+			a[i] = v;
+		}
+	}
+
+	/**
+	 * Returns the lexicographic rank of {@code a}, a permutation of 0 to {@code a.length - 1} with at most 20 elements.
+	 */
+	static long rank(int[] a){
+		int n = a.length;
+		long rank = 0;
+		for (int i = 0; i < n; i++){
+			int smaller = 0;
+			for (int j = i + 1; j < n; j++){
+				if (a[j] < a[i]){
+					smaller++;
+				}
+			}
+			rank = rank * (n - i) + smaller;
+		}
+		return rank;
+	}
+
+	private static void swap(int[] a, int i, int j){
+		int t = a[i];
+		a[i] = a[j];
+		a[j] = t;
+	}
+}
@@ -0,0 +1,631 @@
+package com.underplex.tool;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * An immutable ring of elements, where each change returns a new version that shares almost all of its structure with the old one.
+ * <p>
+ * This follows the same rules as {@code Ring<E>}: elements are ordered and indexed like a list, no two elements are equal, {@code null} is not
+ * allowed, and the first element follows the last one. But instead of changing the ring, {@code add}, {@code addFirst}, {@code addLast},
+ * {@code remove} and {@code makeFirst} return a new ring, leaving this one as it was. If the operation would not change the ring (for instance,
+ * adding an element already present), this same ring is returned, so comparing the result to the original with {@code ==} tells whether
+ * anything changed.
+ * <p>
+ * Keeping an old version is free, and making a new one copies only a logarithmic number of nodes, so this is suited to game-tree search, where
+ * every node of the tree needs its own snapshot of the turn order. Every method takes expected logarithmic time except {@code toList}, and the
+ * occasional change that has to renumber the ring internally, which takes linear time.
+ * <p>
+ * Elements must have well-behaved {@code hashCode} and {@code equals} methods, and must not change in ways affecting either while in any version.
+ * @param <E> - the type of elements held in this ring
+ * @see com.underplex.tool.Ring
+ *
+ * @author Brandon Irvine
+ */
+public final class PersistentRing<E> {
+
+	/**
+	 * Spacing between the order keys of neighboring elements when the ring is numbered afresh.
+	 */
+	private static final long GAP = 1L << 32;
+
+	private static final PersistentRing<Object> EMPTY = new PersistentRing<Object>(null, null, 0L);
+
+	/**
+	 * Elements keyed by their order key. Going through the elements in key order, starting from {@code headKey} and wrapping around,
+	 * gives the order of the ring.
+	 */
+	private final Node<E> order;
+
+	/**
+	 * Elements and their order keys, keyed by the hash code of the element.
+	 */
+	private final Node<Bucket<E>> index;
+
+	/**
+	 * Order key of the first element. Meaningless if the ring is empty.
+	 */
+	private final long headKey;
+
+	private PersistentRing(Node<E> order, Node<Bucket<E>> index, long headKey){
+		this.order = order;
+		this.index = index;
+		this.headKey = headKey;
+	}
+
+	/**
+	 * Returns the empty ring.
+	 * @return a ring with no elements
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> PersistentRing<E> empty(){
+		return (PersistentRing<E>) EMPTY;
+	}
+
+	/**
+	 * Returns a ring holding the elements of the collection in iteration order, skipping any that are equal to an earlier element.
+	 * @param elements - elements to put in the ring
+	 * @return a ring of the elements
+	 * @throws NullPointerException iff the collection or any of its elements is null
+	 */
+	public static <E> PersistentRing<E> from(Collection<? extends E> elements){
+		PersistentRing<E> ring = empty();
+		for (E e : elements){
+			ring = ring.addLast(e);
+		}
+		return ring;
+	}
+
+	/**
+	 * Returns a ring with the specified element inserted at the specified position.
+	 * @param index - index at which the specified element is to be inserted
+	 * @param element - element to be inserted
+	 * @return the new ring, or this ring if the element was already present
+	 * @throws IndexOutOfBoundsException iff the index is out of range (index < 0 || index > size())
+	 * @throws NullPointerException iff the specified element is null
+	 */
+	public PersistentRing<E> add(int index, E element){
+		if ((index < 0 || index > size())){
+			throw new IndexOutOfBoundsException();
+		} else if (element == null){
+			throw new NullPointerException();
+		} else if (contains(element)){
+			return this;
+		} else if (index == size()){
+			return insertBefore(headKey, element, false);
+		}
+		return insertBefore(keyAt(index), element, index == 0);
+	}
+
+	/**
+	 * Returns a ring with the specified element inserted at the first position.
+	 * @param element - the element to add
+	 * @return the new ring, or this ring if the element was already present
+	 * @throws NullPointerException iff the specified element is null
+	 */
+	public PersistentRing<E> addFirst(E element){
+		return add(0, element);
+	}
+
+	/**
+	 * Returns a ring with the specified element inserted at the last position.
+	 * @param element - the element to add
+	 * @return the new ring, or this ring if the element was already present
+	 * @throws NullPointerException iff the specified element is null
+	 */
+	public PersistentRing<E> addLast(E element){
+		return add(size(), element);
+	}
+
+	/**
+	 * Returns a ring where the specified element is first, with all relative positions unchanged.
+	 * <p>
+	 * This takes logarithmic time and shares all of its structure with this ring.
+	 * @param element - element to be made first
+	 * @return the new ring, or this ring if the element was already first
+	 * @throws NullPointerException iff the specified element is null
+	 * @throws IllegalArgumentException iff this ring does not contain the specified element
+	 */
+	public PersistentRing<E> makeFirst(E element){
+		Bucket<E> b = bucketOf(element);
+		if (b == null){
+			throw new IllegalArgumentException();
+		} else if (b.key == headKey){
+			return this;
+		}
+		return new PersistentRing<E>(order, index, b.key);
+	}
+
+	/**
+	 * Returns a ring without the specified element.
+	 * @param element - element to be removed
+	 * @return the new ring, or this ring if the element wasn't present
+	 * @throws NullPointerException iff the specified element is null
+	 */
+	public PersistentRing<E> remove(E element){
+		Bucket<E> b = bucketOf(element);
+		if (b == null){
+			return this;
+		} else if (size() == 1){
+			return empty();
+		}
+		long head = headKey;
+		if (b.key == head){
+			head = nextKey(head);
+		}
+		int hash = element.hashCode();
+		Bucket<E> chain = Node.get(index, hash).without(element);
+		Node<Bucket<E>> newIndex = (chain == null) ? Node.remove(index, hash) : Node.replace(index, hash, chain);
+		return new PersistentRing<E>(Node.remove(order, b.key), newIndex, head);
+	}
+
+	/**
+	 * Returns the empty ring.
+	 * @return a ring with no elements
+	 */
+	public PersistentRing<E> clear(){
+		return empty();
+	}
+
+	/**
+	 * Returns the first element of this ring, or {@code null} if the ring is empty.
+	 * @return first element
+	 */
+	public E getFirst(){
+		if (order == null){
+			return null;
+		}
+		return Node.get(order, headKey);
+	}
+
+	/**
+	 * Returns the last element of this ring, or {@code null} if the ring is empty.
+	 * @return last element
+	 */
+	public E getLast(){
+		if (order == null){
+			return null;
+		}
+		return Node.get(order, previousKey(headKey));
+	}
+
+	/**
+	 * Returns the element of this ring with the specified index.
+	 * @return element at specified index
+	 * @throws IndexOutOfBoundsException iff the index is out of range (index < 0 || index >= size())
+	 */
+	public E get(int index){
+		if ((index < 0 || index >= size())){
+			throw new IndexOutOfBoundsException();
+		}
+		return Node.get(order, keyAt(index));
+	}
+
+	/**
+	 * Returns the index of the specified element in this ring, or -1 if this ring does not contain the element.
+	 * @return index of the specified element or -1
+	 */
+	public int indexOf(E element){
+		Bucket<E> b = (element == null) ? null : bucketOf(element);
+		if (b == null){
+			return -1;
+		}
+		int i = Node.rank(order, b.key) - Node.rank(order, headKey);
+		return i < 0 ? i + size() : i;
+	}
+
+	/**
+	 * Returns {@code true} iff this ring contains no elements.
+	 * @return {@code true} iff this ring contains no elements
+	 */
+	public boolean isEmpty(){
+		return order == null;
+	}
+
+	/**
+	 * Returns the element in the ring after {@code previousElement}, or {@code null} if it isn't in the ring.
+	 * @param previousElement - the previous element
+	 * @return the element with the next position after the specified element
+	 * @throws NullPointerException if the specified element is null
+	 */
+	public E next(E previousElement){
+		Bucket<E> b = bucketOf(previousElement);
+		if (b == null){
+			return null;
+		}
+		return Node.get(order, nextKey(b.key));
+	}
+
+	/**
+	 * Returns the element in the ring before {@code nextElement}, or {@code null} if it isn't in the ring.
+	 * @param nextElement - the next element
+	 * @return the element with the previous position before the specified element
+	 * @throws NullPointerException if the specified element is null
+	 */
+	public E previous(E nextElement){
+		Bucket<E> b = bucketOf(nextElement);
+		if (b == null){
+			return null;
+		}
+		return Node.get(order, previousKey(b.key));
+	}
+
+	/**
+	 * Returns {@code true} iff this ring contains the specified element.
+	 * @return {@code true} iff this ring contains the specified element
+	 */
+	public boolean contains(E element){
+		return element != null && bucketOf(element) != null;
+	}
+
+	/**
+	 * Returns the number of elements in this ring.
+	 * @return the number of elements in this ring
+	 */
+	public int size(){
+		return Node.size(order);
+	}
+
+	/**
+	 * Returns elements in order as a new {@code List}, with the first element at 0.
+	 * @return List of elements in order
+	 */
+	public List<E> toList(){
+		List<E> list = new ArrayList<E>(size());
+		List<E> wrapped = new ArrayList<E>();
+		collect(order, list, wrapped);
+		list.addAll(wrapped);
+		return list;
+	}
+
+	@Override
+	public String toString(){
+		return toList().toString();
+	}
+
+	/**
+	 * Adds the elements in key order to {@code fromHead} if their key is at least {@code headKey}, or to {@code beforeHead} otherwise.
+	 */
+	private void collect(Node<E> n, List<E> fromHead, List<E> beforeHead){
+		if (n != null){
+			collect(n.left, fromHead, beforeHead);
+			(n.key >= headKey ? fromHead : beforeHead).add(n.value);
+			collect(n.right, fromHead, beforeHead);
+		}
+	}
+
+	/**
+	 * Returns the bucket entry for the element, or {@code null} if it isn't present.
+	 */
+	private Bucket<E> bucketOf(E element){
+		if (element == null){
+			throw new NullPointerException();
+		}
+		Bucket<E> chain = Node.get(index, element.hashCode());
+		return (chain == null) ? null : chain.find(element);
+	}
+
+	/**
+	 * Returns the order key of the element with the specified index, which must be valid.
+	 */
+	private long keyAt(int i){
+		int r = Node.rank(order, headKey) + i;
+		if (r >= size()){
+			r -= size();
+		}
+		return Node.select(order, r).key;
+	}
+
+	private long nextKey(long key){
+		Node<E> n = Node.higher(order, key);
+		return (n == null) ? Node.min(order).key : n.key;
+	}
+
+	private long previousKey(long key){
+		Node<E> n = Node.lower(order, key);
+		return (n == null) ? Node.max(order).key : n.key;
+	}
+
+	/**
+	 * Returns a ring with the element, which must not be present, placed just before the element with order key {@code successor}.
+	 * If the ring is empty, the successor is ignored.
+	 */
+	private PersistentRing<E> insertBefore(long successor, E element, boolean makeHead){
+		if (order == null){
+			return new PersistentRing<E>(Node.insert(null, 0L, element), withIndex(index, element, 0L), 0L);
+		}
+		long key;
+		Node<E> lower = Node.lower(order, successor);
+		if (lower == null && makeHead){
+			// the successor has the lowest key, so a new first element can take a lower one and keep the lowest key for the next
+			key = (successor >= Long.MIN_VALUE + GAP) ? successor - GAP : successor;
+		} else if (lower == null){
+			// the successor has the lowest key, so the element can go after the highest key instead
+			long max = Node.max(order).key;
+			key = (max <= Long.MAX_VALUE - GAP) ? max + GAP : max;
+		} else {
+			key = lower.key + (successor - lower.key) / 2;
+		}
+		if (key == successor || Node.get(order, key) != null){
+			// no room between the neighbors' keys
+			PersistentRing<E> spaced = renumbered();
+			return spaced.insertBefore(spaced.keyFor(successor, this), element, makeHead);
+		}
+		return new PersistentRing<E>(Node.insert(order, key, element), withIndex(index, element, key), makeHead ? key : headKey);
+	}
+
+	/**
+	 * Returns a copy of this ring with order keys evenly spaced around zero and the first element given the lowest key, which leaves
+	 * room below the first element and above the last for adding at either end.
+	 */
+	private PersistentRing<E> renumbered(){
+		List<E> list = toList();
+		Node<E> newOrder = null;
+		Node<Bucket<E>> newIndex = null;
+		long key = -(list.size() / 2) * GAP;
+		long first = key;
+		for (E e : list){
+			newOrder = Node.insert(newOrder, key, e);
+			newIndex = withIndex(newIndex, e, key);
+			key += GAP;
+		}
+		return new PersistentRing<E>(newOrder, newIndex, first);
+	}
+
+	/**
+	 * Returns the order key in this ring of the element that has order key {@code oldKey} in {@code old}.
+	 */
+	private long keyFor(long oldKey, PersistentRing<E> old){
+		return bucketOf(Node.get(old.order, oldKey)).key;
+	}
+
+	private static <E> Node<Bucket<E>> withIndex(Node<Bucket<E>> index, E element, long key){
+		int hash = element.hashCode();
+		Bucket<E> chain = Node.get(index, hash);
+		Bucket<E> b = new Bucket<E>(element, key, chain);
+		return (chain == null) ? Node.insert(index, hash, b) : Node.replace(index, hash, b);
+	}
+
+	/**
+	 * Immutable list of the elements sharing a hash code, with their order keys.
+	 */
+	private static final class Bucket<E> {
+
+		private final E element;
+		private final long key;
+		private final Bucket<E> next;
+
+		private Bucket(E element, long key, Bucket<E> next){
+			this.element = element;
+			this.key = key;
+			this.next = next;
+		}
+
+		private Bucket<E> find(E e){
+			for (Bucket<E> b = this; b != null; b = b.next){
+				if (b.element.equals(e)){
+					return b;
+				}
+			}
+			return null;
+		}
+
+		/**
+		 * Returns this list without the element, or {@code null} if nothing would be left.
+		 */
+		private Bucket<E> without(E e){
+			if (element.equals(e)){
+				return next;
+			}
+			Bucket<E> rest = (next == null) ? null : next.without(e);
+			return (rest == next) ? this : new Bucket<E>(element, key, rest);
+		}
+	}
+
+	/**
+	 * Node of an immutable treap keyed by {@code long}, annotated with subtree sizes so it can be searched by rank.
+	 * <p>
+	 * Priorities are derived from keys, so the shape of the tree depends only on the set of keys it holds. Every change copies only the path
+	 * from the root to the changed node.
+	 */
+	private static final class Node<V> {
+
+		private final long key;
+		private final V value;
+		private final int priority;
+		private final int size;
+		private final Node<V> left;
+		private final Node<V> right;
+
+		private Node(long key, V value, int priority, Node<V> left, Node<V> right){
+			this.key = key;
+			this.value = value;
+			this.priority = priority;
+			this.left = left;
+			this.right = right;
+			this.size = 1 + size(left) + size(right);
+		}
+
+		private Node<V> with(Node<V> left, Node<V> right){
+			return new Node<V>(key, value, priority, left, right);
+		}
+
+		private static int size(Node<?> n){
+			return (n == null) ? 0 : n.size;
+		}
+
+		private static int priority(long key){
+			long h = key * 0x9E3779B97F4A7C15L;
+			h ^= h >>> 32;
+			h *= 0xC2B2AE3D27D4EB4FL;
+			return (int) (h ^ (h >>> 29));
+		}
+
+		private static <V> V get(Node<V> n, long key){
+			while (n != null){
+				if (key < n.key){
+					n = n.left;
+				} else if (key > n.key){
+					n = n.right;
+				} else {
+					return n.value;
+				}
+			}
+			return null;
+		}
+
+		/**
+		 * Returns the tree with a node added for a key that must not already be present.
+		 */
+		private static <V> Node<V> insert(Node<V> n, long key, V value){
+			int p = priority(key);
+			if (n == null){
+				return new Node<V>(key, value, p, null, null);
+			} else if (p > n.priority){
+				Node<V>[] parts = split(n, key);
+				return new Node<V>(key, value, p, parts[0], parts[1]);
+			} else if (key < n.key){
+				return n.with(insert(n.left, key, value), n.right);
+			}
+			return n.with(n.left, insert(n.right, key, value));
+		}
+
+		/**
+		 * Returns the tree with the value for a key that must be present replaced.
+		 */
+		private static <V> Node<V> replace(Node<V> n, long key, V value){
+			if (key < n.key){
+				return n.with(replace(n.left, key, value), n.right);
+			} else if (key > n.key){
+				return n.with(n.left, replace(n.right, key, value));
+			}
+			return new Node<V>(key, value, n.priority, n.left, n.right);
+		}
+
+		/**
+		 * Returns the tree without the node for a key that must be present.
+		 */
+		private static <V> Node<V> remove(Node<V> n, long key){
+			if (key < n.key){
+				return n.with(remove(n.left, key), n.right);
+			} else if (key > n.key){
+				return n.with(n.left, remove(n.right, key));
+			}
+			return merge(n.left, n.right);
+		}
+
+		/**
+		 * Splits the tree into keys less than {@code key} and keys greater than it. The key itself must not be present.
+		 */
+		@SuppressWarnings("unchecked")
+		private static <V> Node<V>[] split(Node<V> n, long key){
+			Node<V>[] parts = (Node<V>[]) new Node<?>[2];
+			if (n != null){
+				if (key < n.key){
+					Node<V>[] sub = split(n.left, key);
+					parts[0] = sub[0];
+					parts[1] = n.with(sub[1], n.right);
+				} else {
+					Node<V>[] sub = split(n.right, key);
+					parts[0] = n.with(n.left, sub[0]);
+					parts[1] = sub[1];
+				}
+			}
+			return parts;
+		}
+
+		/**
+		 * Joins two trees where every key in {@code a} is less than every key in {@code b}.
+		 */
+		private static <V> Node<V> merge(Node<V> a, Node<V> b){
+			if (a == null){
+				return b;
+			} else if (b == null){
+				return a;
+			} else if (a.priority > b.priority){
+				return a.with(a.left, merge(a.right, b));
+			}
+			return b.with(merge(a, b.left), b.right);
+		}
+
+		/**
+		 * Returns the number of keys less than {@code key}.
+		 */
+		private static int rank(Node<?> n, long key){
+			int r = 0;
+			while (n != null){
+				if (key <= n.key){
+					n = n.left;
+				} else {
+					r += size(n.left) + 1;
+					n = n.right;
+				}
+			}
+			return r;
+		}
+
+		/**
+		 * Returns the node with the specified rank, which must be valid.
+		 */
+		private static <V> Node<V> select(Node<V> n, int rank){
+			while (true){
+				int l = size(n.left);
+				if (rank < l){
+					n = n.left;
+				} else if (rank > l){
+					rank -= l + 1;
+					n = n.right;
+				} else {
+					return n;
+				}
+			}
+		}
+
+		/**
+		 * Returns the node with the greatest key less than {@code key}, or {@code null} if there is none.
+		 */
+		private static <V> Node<V> lower(Node<V> n, long key){
+			Node<V> best = null;
+			while (n != null){
+				if (n.key < key){
+					best = n;
+					n = n.right;
+				} else {
+					n = n.left;
+				}
+			}
+			return best;
+		}
+
+		/**
+		 * Returns the node with the least key greater than {@code key}, or {@code null} if there is none.
+		 */
+		private static <V> Node<V> higher(Node<V> n, long key){
+			Node<V> best = null;
+			while (n != null){
+				if (n.key > key){
+					best = n;
+					n = n.left;
+				} else {
+					n = n.right;
+				}
+			}
+			return best;
+		}
+
+		private static <V> Node<V> min(Node<V> n){
+			while (n.left != null){
+				n = n.left;
+			}
+			return n;
+		}
+
+		private static <V> Node<V> max(Node<V> n){
+			while (n.right != null){
+				n = n.right;
+			}
+			return n;
+		}
+	}
+}
@@ -0,0 +1,96 @@
+package com.underplex.tool;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterator over every way of choosing one option from each of several groups, like the readings of an odometer.
+ * <p>
+ * The options are held in arrays, one per group, and the only other state is the index of the current option of each group. The last
+ * group changes fastest. Each choice is a new fixed-size {@code List} with one option per group, in group order.
+ *
+ * @author Brandon Irvine
+ */
+final class ProductIterator<T> implements Iterator<List<T>> {
+
+	private final Object[][] groups;
+
+	/**
+	 * Index of the option of each group in the next choice to return, or {@code null} once every choice has been returned.
+	 */
+	private int[] digits;
+
+	/**
+	 * Creates an iterator over the choices from {@code groups}, none of which may be empty.
+	 */
+	ProductIterator(Object[][] groups){
+		this.groups = groups;
+		this.digits = new int[groups.length];
+	}
+
+	@Override
+	public boolean hasNext(){
+		return digits != null;
+	}
+
+	@Override
+	public List<T> next(){
+		if (digits == null){
+			throw new NoSuchElementException();
+		}
+		List<T> choice = choice(groups, digits);
+		if (!advance(digits, groups)){
+			digits = null;
+		}
+		return choice;
+	}
+
+	/**
+	 * Returns the options of {@code groups} with the indices {@code digits}.
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> List<T> choice(Object[][] groups, int[] digits){
+		Object[] choice = new Object[digits.length];
+		for (int i = 0; i < digits.length; i++){
+			choice[i] = groups[i][digits[i]];
+		}
+		return (List<T>) Arrays.asList(choice);
+	}
+
+	/**
+	 * Changes {@code digits} to the indices of the next choice, returning {@code false} after wrapping around to the first one.
+	 */
+	static boolean advance(int[] digits, Object[][] groups){
+		for (int i = digits.length - 1; i >= 0; i--){
+			if (++digits[i] < groups[i].length){
+				return true;
+			}
+			digits[i] = 0;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the number of choices from {@code groups}.
+	 * @throws ArithmeticException iff the number doesn't fit in a {@code long}
+	 */
+	static long count(Object[][] groups){
+		long count = 1;
+		for (Object[] g : groups){
+			count = Math.multiplyExact(count, g.length);
+		}
+		return count;
+	}
+
+	/**
+	 * Sets {@code digits} to the indices of the choice with rank {@code rank}, counting choices in the order of this iterator.
+	 */
+	static void unrank(long rank, int[] digits, Object[][] groups){
+		for (int i = digits.length - 1; i >= 0; i--){
+			digits[i] = (int) (rank % groups[i].length);
+			rank /= groups[i].length;
+		}
+	}
+}
@@ -0,0 +1,101 @@
+package com.underplex.tool;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over every way of choosing one option from each of several groups, in the same order as {@code ProductIterator}.
+ * <p>
+ * Like {@code KCombinationSpliterator}, each spliterator covers a range of ranks and splits by halving it, finding its first choice only
+ * when it's first advanced.
+ *
+ * @author Brandon Irvine
+ */
+final class ProductSpliterator<T> implements Spliterator<List<T>> {
+
+	private final Object[][] groups;
+
+	/**
+	 * Rank of the next choice to return.
+	 */
+	private long origin;
+
+	/**
+	 * One past the rank of the last choice to return.
+	 */
+	private final long fence;
+
+	/**
+	 * Indices of the choice with rank {@code origin}, or {@code null} if they haven't been found yet.
+	 */
+	private int[] digits;
+
+	/**
+	 * Creates a spliterator over the choices from {@code groups}, none of which may be empty.
+	 * @throws ArithmeticException iff there are more choices than fit in a {@code long}
+	 */
+	ProductSpliterator(Object[][] groups){
+		this(groups, 0, ProductIterator.count(groups), null);
+	}
+
+	private ProductSpliterator(Object[][] groups, long origin, long fence, int[] digits){
+		this.groups = groups;
+		this.origin = origin;
+		this.fence = fence;
+		this.digits = digits;
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super List<T>> action){
+		if (origin >= fence){
+			return false;
+		}
+		action.accept(take());
+		return true;
+	}
+
+	@Override
+	public void forEachRemaining(Consumer<? super List<T>> action){
+		while (origin < fence){
+			action.accept(take());
+		}
+	}
+
+	@Override
+	public Spliterator<List<T>> trySplit(){
+		long mid = origin + (fence - origin) / 2;
+		if (mid == origin){
+			return null;
+		}
+		Spliterator<List<T>> prefix = new ProductSpliterator<T>(groups, origin, mid, digits);
+		origin = mid;
+		digits = null;
+		return prefix;
+	}
+
+	@Override
+	public long estimateSize(){
+		return fence - origin;
+	}
+
+	@Override
+	public int characteristics(){
+		return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+	}
+
+	/**
+	 * Returns the choice with rank {@code origin}, which must be less than {@code fence}, and moves on to the next one.
+	 */
+	private List<T> take(){
+		if (digits == null){
+			digits = new int[groups.length];
+			ProductIterator.unrank(origin, digits, groups);
+		}
+		List<T> choice = ProductIterator.choice(groups, digits);
+		if (++origin < fence){
+			ProductIterator.advance(digits, groups);
+		}
+		return choice;
+	}
+}
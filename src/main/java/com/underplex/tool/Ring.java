@@ -1,6 +1,10 @@
 package com.underplex.tool;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
 
 /**
  * A ring of elements.
@@ -180,4 +184,92 @@ public interface Ring<E> {
 	 */
 	List<E> toList();
 
+	/**
+	 * Returns a new cursor positioned at the first element of this ring, or with no position if this ring is empty.
+	 * <p>
+	 * A cursor goes round the ring without searching for the current element at each step, and keeps working as elements are removed.
+	 * <p>
+	 * The default implementation tracks the cursor's element by index, which takes constant time per step for rings with constant-time {@code get}.
+	 * @return a cursor over this ring
+	 * @see com.underplex.tool.RingCursor
+	 */
+	default RingCursor<E> cursor(){
+		return new IndexedRingCursor<E>(this);
+	}
+
+	/**
+	 * Inserts each element of the specified collection at the end of this ring, in the collection's iteration order.
+	 * <p>
+	 * Elements already in this ring, or equal to an earlier element of the collection, are skipped, just as {@code addLast} would skip them.
+	 * If the collection holds a {@code null} element, this ring is left unchanged.
+	 * <p>
+	 * The default implementation calls {@code addLast} for each element. Implementations where {@code addLast} searches the ring should
+	 * override this to check for duplicates in a single pass.
+	 * @param elements - elements to be added
+	 * @return {@code true} iff this ring changed as a result of the call
+	 * @throws NullPointerException iff the collection or any of its elements is null
+	 */
+	default boolean addAll(Collection<? extends E> elements){
+		for (E e : elements){
+			if (e == null){
+				throw new NullPointerException();
+			}
+		}
+		boolean changed = false;
+		for (E e : elements){
+			changed |= addLast(e);
+		}
+		return changed;
+	}
+
+	/**
+	 * Removes every element of this ring that satisfies the specified predicate. The remaining elements keep their relative positions.
+	 * <p>
+	 * If the first element is removed, the first remaining element after it becomes first.
+	 * <p>
+	 * The default implementation calls {@code remove} for each element to be removed. Implementations where {@code remove} searches the ring should
+	 * override this to remove everything in a single pass.
+	 * @param filter - returns {@code true} for elements to be removed
+	 * @return {@code true} iff any elements were removed
+	 * @throws NullPointerException iff the filter is null
+	 */
+	default boolean removeIf(Predicate<? super E> filter){
+		if (filter == null){
+			throw new NullPointerException();
+		}
+		boolean changed = false;
+		for (E e : toList()){
+			if (filter.test(e)){
+				changed |= remove(e);
+			}
+		}
+		return changed;
+	}
+
+	/**
+	 * Removes every element of this ring that is contained in the specified collection.
+	 * <p>
+	 * Unless the collection is a {@code Set}, it is first copied into a hash set, so each element of this ring is checked in constant time.
+	 * @param elements - elements to be removed
+	 * @return {@code true} iff any elements were removed
+	 * @throws NullPointerException iff the collection is null
+	 */
+	default boolean removeAll(Collection<?> elements){
+		Set<?> set = (elements instanceof Set) ? (Set<?>) elements : new HashSet<Object>(elements);
+		return removeIf(e -> set.contains(e));
+	}
+
+	/**
+	 * Removes every element of this ring that is not contained in the specified collection.
+	 * <p>
+	 * Unless the collection is a {@code Set}, it is first copied into a hash set, so each element of this ring is checked in constant time.
+	 * @param elements - elements to be kept
+	 * @return {@code true} iff any elements were removed
+	 * @throws NullPointerException iff the collection is null
+	 */
+	default boolean retainAll(Collection<?> elements){
+		Set<?> set = (elements instanceof Set) ? (Set<?>) elements : new HashSet<Object>(elements);
+		return removeIf(e -> !set.contains(e));
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,329 @@
+package com.underplex.tool;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Utility class with static methods for writing many rings at once into a {@code ByteBuffer} or {@code FileChannel} and reading them back.
+ * <p>
+ * This is meant for checkpointing large numbers of rings, where Java serialization of each ring is too slow and too verbose. A batch of rings
+ * is written as the number of rings, then for each ring its size followed by its elements in order. For {@code IntRing} each element is a
+ * single {@code int}; for other rings the caller supplies how to write and read one element.
+ * <p>
+ * Values are written in the byte order of the buffer written to, and each batch starts with a single byte marking that order. Reading
+ * a batch uses the order marked, whatever the order of the buffer read from, and leaves the buffer's order as it was.
+ * @author Brandon Irvine
+ */
+public class RingBuffers {
+
+	private RingBuffers(){
+		// don't instantiate
+	}
+
+	private static final byte BIG_ENDIAN = 0;
+
+	private static final byte LITTLE_ENDIAN = 1;
+
+	/**
+	 * Bytes taken by the byte order marker and the number of rings at the start of each batch.
+	 */
+	private static final int HEADER_BYTES = 1 + 4;
+
+	/**
+	 * Returns the number of bytes {@link #writeInts(ByteBuffer, Collection)} will take to write the rings.
+	 * @param rings - rings to be written
+	 * @return number of bytes needed
+	 */
+	public static long intBytes(Collection<IntRing> rings){
+		long bytes = HEADER_BYTES;
+		for (IntRing r : rings){
+			bytes += 4 + 4L * r.size();
+		}
+		return bytes;
+	}
+
+	/**
+	 * Writes the rings into the buffer, starting at its position.
+	 * @param buffer - buffer to write to
+	 * @param rings - rings to write
+	 * @throws BufferOverflowException iff the buffer doesn't have room for the rings, in which case its position is unspecified
+	 */
+	public static void writeInts(ByteBuffer buffer, Collection<IntRing> rings){
+		putOrder(buffer);
+		buffer.putInt(rings.size());
+		for (IntRing r : rings){
+			int size = r.size();
+			buffer.putInt(size);
+			for (int i = 0; i < size; i++){
+				buffer.putInt(r.get(i));
+			}
+		}
+	}
+
+	/**
+	 * Reads rings written by {@link #writeInts(ByteBuffer, Collection)} from the buffer, starting at its position.
+	 * @param buffer - buffer to read from
+	 * @return rings in the order they were written
+	 * @throws IllegalArgumentException iff the buffer doesn't hold a valid batch of rings
+	 */
+	public static List<IntRing> readInts(ByteBuffer buffer){
+		ByteOrder order = buffer.order();
+		try {
+			takeOrder(buffer);
+			int count = checkedCount(buffer.getInt());
+			List<IntRing> rings = new ArrayList<IntRing>(count);
+			for (int n = 0; n < count; n++){
+				int size = checkedCount(buffer.getInt());
+				if (size > buffer.remaining() / 4){
+					throw new BufferUnderflowException();
+				}
+				int[] values = new int[size];
+				buffer.asIntBuffer().get(values);
+				buffer.position(buffer.position() + 4 * size);
+				rings.add(IntRing.of(values, size));
+			}
+			return rings;
+		} catch (BufferUnderflowException e){
+			throw new IllegalArgumentException("truncated buffer", e);
+		} finally {
+			buffer.order(order);
+		}
+	}
+
+	/**
+	 * Writes the rings to the channel at its current position, as {@link #writeInts(ByteBuffer, Collection)} would.
+	 * <p>
+	 * Values are encoded into {@code scratch}, which is written out to the channel whenever it fills, so one buffer of any size can be reused
+	 * for every batch without allocating. A direct buffer is best.
+	 * @param channel - channel to write to
+	 * @param rings - rings to write
+	 * @param scratch - buffer used for encoding, with room for at least 4 bytes
+	 * @return number of bytes written
+	 * @throws IOException if the channel can't be written
+	 * @throws IllegalArgumentException iff {@code scratch} can't hold 4 bytes
+	 */
+	public static long writeInts(FileChannel channel, Collection<IntRing> rings, ByteBuffer scratch) throws IOException {
+		if (scratch.capacity() < 4){
+			throw new IllegalArgumentException("scratch buffer too small");
+		}
+		long written = 0;
+		scratch.clear();
+		putOrder(scratch);
+		written += room(channel, scratch);
+		scratch.putInt(rings.size());
+		for (IntRing r : rings){
+			int size = r.size();
+			written += room(channel, scratch);
+			scratch.putInt(size);
+			for (int i = 0; i < size; i++){
+				written += room(channel, scratch);
+				scratch.putInt(r.get(i));
+			}
+		}
+		scratch.flip();
+		written += drain(channel, scratch);
+		scratch.clear();
+		return written;
+	}
+
+	/**
+	 * Reads rings written by {@link #writeInts(FileChannel, Collection, ByteBuffer)} from the channel, starting at its current position.
+	 * <p>
+	 * The rest of the file is mapped into memory rather than copied, and the channel's position is moved past the rings read.
+	 * @param channel - channel to read from
+	 * @return rings in the order they were written
+	 * @throws IOException if the channel can't be read
+	 */
+	public static List<IntRing> readInts(FileChannel channel) throws IOException {
+		ByteBuffer buffer = map(channel);
+		List<IntRing> rings = readInts(buffer);
+		channel.position(channel.position() + buffer.position());
+		return rings;
+	}
+
+	/**
+	 * Writes the rings into the buffer, starting at its position, using {@code writer} to write each element.
+	 * @param buffer - buffer to write to
+	 * @param rings - rings to write
+	 * @param writer - writes a single element into the buffer
+	 * @throws BufferOverflowException iff the buffer doesn't have room for the rings, in which case its position is unspecified
+	 */
+	public static <E> void write(ByteBuffer buffer, Collection<? extends Ring<E>> rings, BiConsumer<ByteBuffer, ? super E> writer){
+		putOrder(buffer);
+		buffer.putInt(rings.size());
+		for (Ring<E> r : rings){
+			writeRing(buffer, r, writer);
+		}
+	}
+
+	/**
+	 * Reads rings written by {@link #write(ByteBuffer, Collection, BiConsumer)} from the buffer, starting at its position, using {@code reader}
+	 * to read each element. The rings returned are {@code ArrayRing}s.
+	 * @param buffer - buffer to read from
+	 * @param reader - reads a single element from the buffer
+	 * @return rings in the order they were written
+	 * @throws IllegalArgumentException iff the buffer doesn't hold a valid batch of rings
+	 */
+	public static <E> List<Ring<E>> read(ByteBuffer buffer, Function<ByteBuffer, ? extends E> reader){
+		ByteOrder order = buffer.order();
+		try {
+			takeOrder(buffer);
+			int count = checkedCount(buffer.getInt());
+			List<Ring<E>> rings = new ArrayList<Ring<E>>(count);
+			for (int n = 0; n < count; n++){
+				int size = checkedCount(buffer.getInt());
+				List<E> elements = new ArrayList<E>(size);
+				for (int i = 0; i < size; i++){
+					elements.add(reader.apply(buffer));
+				}
+				Ring<E> r = new ArrayRing<E>();
+				r.addAll(elements);
+				if (r.size() != size){
+					throw new IllegalArgumentException("duplicate element");
+				}
+				rings.add(r);
+			}
+			return rings;
+		} catch (BufferUnderflowException e){
+			throw new IllegalArgumentException("truncated buffer", e);
+		} finally {
+			buffer.order(order);
+		}
+	}
+
+	/**
+	 * Writes the rings to the channel at its current position, as {@link #write(ByteBuffer, Collection, BiConsumer)} would.
+	 * <p>
+	 * Rings are encoded into {@code scratch}, which is written out to the channel whenever the next ring doesn't fit, so one buffer can be
+	 * reused for any number of rings.
+	 * @param channel - channel to write to
+	 * @param rings - rings to write
+	 * @param writer - writes a single element into the buffer
+	 * @param scratch - buffer used for encoding, which must be able to hold the 5 byte header and any single ring
+	 * @return number of bytes written
+	 * @throws IOException if the channel can't be written
+	 * @throws IllegalArgumentException iff the header or a single ring doesn't fit in {@code scratch}
+	 */
+	public static <E> long write(FileChannel channel, Collection<? extends Ring<E>> rings, BiConsumer<ByteBuffer, ? super E> writer,
+			ByteBuffer scratch) throws IOException {
+		if (scratch.capacity() < HEADER_BYTES){
+			throw new IllegalArgumentException("scratch buffer too small");
+		}
+		long written = 0;
+		scratch.clear();
+		putOrder(scratch);
+		scratch.putInt(rings.size());
+		for (Ring<E> r : rings){
+			int mark = scratch.position();
+			try {
+				writeRing(scratch, r, writer);
+			} catch (BufferOverflowException e){
+				scratch.position(mark);
+				scratch.flip();
+				written += drain(channel, scratch);
+				scratch.clear();
+				try {
+					writeRing(scratch, r, writer);
+				} catch (BufferOverflowException tooBig){
+					throw new IllegalArgumentException("ring too large for scratch buffer", tooBig);
+				}
+			}
+		}
+		scratch.flip();
+		written += drain(channel, scratch);
+		scratch.clear();
+		return written;
+	}
+
+	/**
+	 * Reads rings written by {@link #write(FileChannel, Collection, BiConsumer, ByteBuffer)} from the channel, starting at its current position.
+	 * <p>
+	 * The rest of the file is mapped into memory rather than copied, and the channel's position is moved past the rings read.
+	 * @param channel - channel to read from
+	 * @param reader - reads a single element from the buffer
+	 * @return rings in the order they were written
+	 * @throws IOException if the channel can't be read
+	 */
+	public static <E> List<Ring<E>> read(FileChannel channel, Function<ByteBuffer, ? extends E> reader) throws IOException {
+		ByteBuffer buffer = map(channel);
+		List<Ring<E>> rings = read(buffer, reader);
+		channel.position(channel.position() + buffer.position());
+		return rings;
+	}
+
+	private static <E> void writeRing(ByteBuffer buffer, Ring<E> r, BiConsumer<ByteBuffer, ? super E> writer){
+		int size = r.size();
+		buffer.putInt(size);
+		// a cursor rather than get(int), which need not take constant time
+		RingCursor<E> c = r.cursor();
+		for (int i = 0; i < size; i++){
+			writer.accept(buffer, i == 0 ? c.current() : c.advance());
+		}
+	}
+
+	/**
+	 * Writes the marker of the buffer's byte order.
+	 */
+	private static void putOrder(ByteBuffer buffer){
+		buffer.put(buffer.order() == ByteOrder.LITTLE_ENDIAN ? LITTLE_ENDIAN : BIG_ENDIAN);
+	}
+
+	/**
+	 * Reads a marker of byte order and sets the buffer to that order.
+	 */
+	private static void takeOrder(ByteBuffer buffer){
+		byte marker = buffer.get();
+		if (marker == BIG_ENDIAN){
+			buffer.order(ByteOrder.BIG_ENDIAN);
+		} else if (marker == LITTLE_ENDIAN){
+			buffer.order(ByteOrder.LITTLE_ENDIAN);
+		} else {
+			throw new IllegalArgumentException("unknown byte order marker " + marker);
+		}
+	}
+
+	/**
+	 * Writes out {@code scratch} if it hasn't room for another {@code int}, returning the number of bytes written.
+	 */
+	private static long room(FileChannel channel, ByteBuffer scratch) throws IOException {
+		if (scratch.remaining() >= 4){
+			return 0;
+		}
+		scratch.flip();
+		long written = drain(channel, scratch);
+		scratch.clear();
+		return written;
+	}
+
+	private static int checkedCount(int count){
+		if (count < 0){
+			throw new IllegalArgumentException("negative count");
+		}
+		return count;
+	}
+
+	private static long drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+		long written = 0;
+		while (buffer.hasRemaining()){
+			written += channel.write(buffer);
+		}
+		return written;
+	}
+
+	private static ByteBuffer map(FileChannel channel) throws IOException {
+		long remaining = channel.size() - channel.position();
+		if (remaining > Integer.MAX_VALUE){
+			remaining = Integer.MAX_VALUE;
+		}
+		return channel.map(FileChannel.MapMode.READ_ONLY, channel.position(), remaining);
+	}
+}
@@ -0,0 +1,50 @@
+package com.underplex.tool;
+
+/**
+ * A position in a {@code Ring<E>} that can be moved around the ring without searching for the current element each time.
+ * <p>
+ * A cursor is obtained from {@link Ring#cursor()} and starts at the first element of the ring. Calling {@code advance} repeatedly goes
+ * round the ring forever, returning to the first element after the last, just as repeated calls to {@code Ring.next} would.
+ * <p>
+ * A cursor stays usable while its ring changes. If the element at the cursor is removed from the ring, the cursor is left in the gap,
+ * so {@code current} returns {@code null}, {@code advance} moves to the element that followed the removed one, and {@code retreat} moves to
+ * the element that preceded it. In other words, the cursor follows the circle as it is "sewn up". Removing other elements doesn't
+ * disturb the cursor at all.
+ * <p>
+ * Cursors are not thread-safe, even for rings that are.
+ * @param <E> - the type of elements held in the ring
+ *
+ * @author Brandon Irvine
+ */
+public interface RingCursor<E> {
+
+	/**
+	 * Returns the element at this cursor, or {@code null} if the ring is empty or the element has been removed from the ring.
+	 * @return the element at this cursor
+	 */
+	E current();
+
+	/**
+	 * Moves this cursor to the next element of the ring and returns it.
+	 * <p>
+	 * If the ring is empty, the cursor is left with no position and {@code null} is returned.
+	 * @return the element the cursor moved to
+	 */
+	E advance();
+
+	/**
+	 * Moves this cursor to the previous element of the ring and returns it.
+	 * <p>
+	 * If the ring is empty, the cursor is left with no position and {@code null} is returned.
+	 * @return the element the cursor moved to
+	 */
+	E retreat();
+
+	/**
+	 * Moves this cursor to the specified element.
+	 * @param element - the element to move to
+	 * @throws NullPointerException iff the specified element is null
+	 * @throws IllegalArgumentException iff the ring does not contain the specified element
+	 */
+	void moveTo(E element);
+}
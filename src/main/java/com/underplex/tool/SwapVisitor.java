@@ -0,0 +1,32 @@
+package com.underplex.tool;
+
+import java.util.List;
+
+/**
+ * Implementing classes are told of each step of an enumeration of combinations in which each combination differs from the one before by
+ * a single swap.
+ * <p>
+ * A visitor that keeps a running total over the current combination can set it up in {@link #start(List)} and update it in
+ * {@link #onSwap(Object, Object)} by taking away what {@code out} contributed and adding what {@code in} does, rather than going over the
+ * whole combination again.
+ * @see Combiner#revolvingDoor(List, int, SwapVisitor)
+ */
+public interface SwapVisitor<T> {
+
+	/**
+	 * Called once with the first combination, before any swap.
+	 * <p>
+	 * The list is only valid during this call. By default nothing is done.
+	 * @param first - elements of the first combination
+	 */
+	default void start(List<T> first){
+		// nothing by default
+	}
+
+	/**
+	 * Called when the next combination is reached by replacing {@code out} with {@code in}.
+	 * @param out - element leaving the combination
+	 * @param in - element joining the combination
+	 */
+	void onSwap(T out, T in);
+}
@@ -0,0 +1,221 @@
+package com.underplex.tool;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+
+/**
+ * Compiled form of the search terms used by {@code Finder}, for checking many strings against the same terms.
+ * <p>
+ * The terms, and the term to exclude if there is one, are built into an Aho-Corasick automaton once. A string is then checked for all of
+ * them in a single pass over its characters, rather than one pass per term, and stops as soon as the answer is known.
+ * <p>
+ * Matching isn't case-sensitive. Each character is compared by its {@code Character.toUpperCase}, so no upper case copy of a string is
+ * made. This gives the same results as comparing {@code toUpperCase} copies, as {@code Finder} does, except for the few characters whose
+ * upper case depends on the locale or is more than one character, such as 'ß'.
+ * <p>
+ * A matcher doesn't change once it's made, so it can be shared between threads.
+ * @see com.underplex.tool.Finder
+ *
+ * @author Brandon Irvine
+ */
+public final class TermMatcher {
+
+	private static final int ROOT = 0;
+
+	/**
+	 * Number of {@code long} words in the set of terms found at each state.
+	 */
+	private final int words;
+
+	/**
+	 * Terms that must all be found, one bit per term.
+	 */
+	private final long[] required;
+
+	/**
+	 * Upper case characters leaving each state, in increasing order.
+	 */
+	private final char[][] labels;
+
+	/**
+	 * State reached by each character of {@code labels}.
+	 */
+	private final int[][] targets;
+
+	/**
+	 * Longest proper suffix of each state's string that is also a state, followed when a character has no transition.
+	 */
+	private final int[] fail;
+
+	/**
+	 * Terms ending at each state, including through its failure links, {@code words} at a time.
+	 */
+	private final long[] found;
+
+	/**
+	 * Whether the excluded term ends at each state, including through its failure links.
+	 */
+	private final boolean[] excluded;
+
+	/**
+	 * Whether there is a term to exclude, in which case a whole string must be read before it can match.
+	 */
+	private final boolean excludes;
+
+	private TermMatcher(String without, String...search){
+		this.excludes = without != null;
+		this.words = Math.max(1, (search.length + 63) / 64);
+		this.required = new long[words];
+		List<TreeMap<Character, Integer>> trie = new ArrayList<TreeMap<Character, Integer>>();
+		trie.add(new TreeMap<Character, Integer>());
+		List<long[]> ends = new ArrayList<long[]>();
+		ends.add(new long[words]);
+		List<Boolean> excludedEnds = new ArrayList<Boolean>();
+		excludedEnds.add(false);
+		for (int t = 0; t <= search.length; t++){
+			String term = t < search.length ? search[t] : without;
+			if (term == null){
+				continue;
+			}
+			int state = ROOT;
+			for (int i = 0; i < term.length(); i++){
+				char c = Character.toUpperCase(term.charAt(i));
+				Integer next = trie.get(state).get(c);
+				if (next == null){
+					next = trie.size();
+					trie.get(state).put(c, next);
+					trie.add(new TreeMap<Character, Integer>());
+					ends.add(new long[words]);
+					excludedEnds.add(false);
+				}
+				state = next;
+			}
+			if (t < search.length){
+				ends.get(state)[t >>> 6] |= 1L << t;
+				required[t >>> 6] |= 1L << t;
+			} else {
+				excludedEnds.set(state, true);
+			}
+		}
+
+		int states = trie.size();
+		this.labels = new char[states][];
+		this.targets = new int[states][];
+		this.fail = new int[states];
+		this.found = new long[states * words];
+		this.excluded = new boolean[states];
+		for (int s = 0; s < states; s++){
+			TreeMap<Character, Integer> edges = trie.get(s);
+			labels[s] = new char[edges.size()];
+			targets[s] = new int[edges.size()];
+			int e = 0;
+			for (Map.Entry<Character, Integer> edge : edges.entrySet()){
+				labels[s][e] = edge.getKey();
+				targets[s][e++] = edge.getValue();
+			}
+			System.arraycopy(ends.get(s), 0, found, s * words, words);
+			excluded[s] = excludedEnds.get(s);
+		}
+
+		// failure links in breadth first order, so a state's link is always done before it's needed
+		Queue<Integer> queue = new ArrayDeque<Integer>();
+		for (int child : targets[ROOT]){
+			queue.add(child);
+		}
+		while (!queue.isEmpty()){
+			int s = queue.remove();
+			for (int e = 0; e < labels[s].length; e++){
+				int child = targets[s][e];
+				fail[child] = step(fail[s], labels[s][e]);
+				for (int w = 0; w < words; w++){
+					found[child * words + w] |= found[fail[child] * words + w];
+				}
+				excluded[child] |= excluded[fail[child]];
+				queue.add(child);
+			}
+		}
+	}
+
+	/**
+	 * Returns a matcher for strings containing every one of the {@code search} strings.
+	 * @param search - String varargs that need to be found in the string, not case-sensitive
+	 * @return compiled matcher
+	 */
+	public static TermMatcher of(String...search){
+		return new TermMatcher(null, search);
+	}
+
+	/**
+	 * Returns a matcher for strings containing every one of the {@code search} strings but not {@code without}.
+	 * @param without - String that can't be present in a matching string, not case-sensitive
+	 * @param search - String varargs that need to be found in the string, not case-sensitive
+	 * @return compiled matcher
+	 */
+	public static TermMatcher excluding(String without, String...search){
+		if (without == null){
+			throw new NullPointerException();
+		}
+		return new TermMatcher(without, search);
+	}
+
+	/**
+	 * Returns {@code true} iff {@code s} contains every search term, and not the excluded term if there is one, ignoring case.
+	 * @param s - characters to check
+	 * @return {@code true} iff {@code s} matches
+	 */
+	public boolean matches(CharSequence s){
+		if (excluded[ROOT]){
+			return false;
+		}
+		if (words == 1){
+			// the usual case of at most 64 terms, kept in a local rather than an array
+			long all = required[0];
+			long have = found[ROOT];
+			int state = ROOT;
+			for (int i = 0, n = s.length(); i < n; i++){
+				if (have == all && !excludes){
+					return true;
+				}
+				state = step(state, Character.toUpperCase(s.charAt(i)));
+				if (excluded[state]){
+					return false;
+				}
+				have |= found[state];
+			}
+			return have == all;
+		}
+		long[] have = Arrays.copyOf(found, words);
+		int state = ROOT;
+		for (int i = 0, n = s.length(); i < n; i++){
+			state = step(state, Character.toUpperCase(s.charAt(i)));
+			if (excluded[state]){
+				return false;
+			}
+			for (int w = 0; w < words; w++){
+				have[w] |= found[state * words + w];
+			}
+		}
+		return Arrays.equals(have, required);
+	}
+
+	/**
+	 * Returns the state reached from {@code state} by the upper case character {@code c}, following failure links as needed.
+	 */
+	private int step(int state, char c){
+		while (true){
+			int e = Arrays.binarySearch(labels[state], c);
+			if (e >= 0){
+				return targets[state][e];
+			} else if (state == ROOT){
+				return ROOT;
+			}
+			state = fail[state];
+		}
+	}
+
+}
@@ -0,0 +1,603 @@
+package com.underplex.tool;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * An implementation of {@code Ring<E>} for games where players are eliminated as play goes round the table.
+ * <p>
+ * Elements are kept in an array along with a hash index from each element to its slot. Removing an element only clears its slot, leaving a
+ * tombstone that {@code next}, {@code previous} and cursors step over, so eliminations take constant time. Once tombstones outnumber the
+ * elements left, the array is compacted in one pass, which keeps removal constant time amortized and bounds how many tombstones any step
+ * has to skip. {@code contains} and {@code makeFirst} take constant time, and so do {@code next} and {@code previous} apart from skipping
+ * tombstones.
+ * <p>
+ * New elements are put into a tombstone slot where one sits in the right place, or at the end of the array when they go just before the
+ * element in its first slot. Failing that, a few elements are shifted up into a nearby tombstone or the free slots at the end, and only
+ * when none is close is the array rebuilt, starting from the element the new one goes before, so that further elements added there go at
+ * the end. Adding elements one after another at either end of the ring, including after a call to {@code makeFirst}, therefore takes
+ * constant time amortized. Index-based methods take constant time while there are no tombstones, and linear time otherwise.
+ * <p>
+ * Cursors from this ring skip tombstones as well. Each remembers an element rather than a slot, and the ring moves any cursor on a removed
+ * element to the gap before the element that followed it, so cursors keep their place however often the array is compacted or rebuilt.
+ * @see com.underplex.tool.Ring
+ *
+ * @author Brandon Irvine
+ */
+public class TombstoneRing<E> implements Ring<E>, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final int DEFAULT_CAPACITY = 8;
+
+	/**
+	 * The array is never compacted while it holds fewer tombstones than this, which avoids compacting small rings over and over.
+	 */
+	private static final int MIN_TOMBSTONES = 8;
+
+	/**
+	 * Most elements shifted to make room for a new one before the array is rebuilt instead.
+	 */
+	private static final int MAX_SHIFT = 8;
+
+	/**
+	 * Slots in use are 0 to {@code used - 1}. A {@code null} among them is a tombstone. Going through the slots in order from {@code head} and wrapping
+	 * around gives the order of the ring.
+	 */
+	private transient Object[] slots;
+
+	private transient int used;
+
+	private transient int live;
+
+	/**
+	 * Slot of the first element, or -1 iff the ring is empty.
+	 */
+	private transient int head;
+
+	private transient HashMap<E, Integer> slotOf;
+
+	/**
+	 * Cursors handed out by this ring, which are told when their element is removed.
+	 */
+	private transient ArrayList<WeakReference<TombstoneCursor>> cursors;
+
+	/**
+	 * Number of cursors at which cleared references are next dropped.
+	 */
+	private transient int pruneAt;
+
+	public TombstoneRing(){
+		init();
+	}
+
+	private void init(){
+		this.slots = new Object[DEFAULT_CAPACITY];
+		this.slotOf = new HashMap<E, Integer>();
+		this.head = -1;
+		this.cursors = new ArrayList<WeakReference<TombstoneCursor>>();
+		this.pruneAt = DEFAULT_CAPACITY;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#add(int, E)
+	 */
+	@Override
+	public final boolean add(int index, E element){
+		if ((index < 0 || index > live)){
+			throw new IndexOutOfBoundsException();
+		} else if (element == null){
+			throw new NullPointerException();
+		} else if (slotOf.containsKey(element)){
+			return false;
+		} else if (live == 0){
+			placeAlone(element);
+		} else if (index == live){
+			insertBefore(head, element, false);
+		} else {
+			insertBefore(slotAt(index), element, index == 0);
+		}
+		return true;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#addFirst(E)
+	 */
+	@Override
+	public final boolean addFirst(E element){
+		return add(0, element);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#addLast(E)
+	 */
+	@Override
+	public final boolean addLast(E element){
+		if (element == null){
+			throw new NullPointerException();
+		}
+		return add(live, element);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#makeFirst(E)
+	 */
+	@Override
+	public final boolean makeFirst(E element){
+		if (element == null){
+			throw new NullPointerException();
+		}
+		Integer s = slotOf.get(element);
+		if (s == null){
+			throw new IllegalArgumentException();
+		} else if (s.intValue() != head){
+			head = s.intValue();
+			return true;
+		}
+		return false;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#clear()
+	 */
+	@Override
+	public final void clear(){
+		for (int i = 0; i < used; i++){
+			slots[i] = null;
+		}
+		slotOf.clear();
+		used = 0;
+		live = 0;
+		head = -1;
+		reanchor(null, null);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#getFirst()
+	 */
+	@Override
+	public final E getFirst(){
+		if (live == 0){
+			return null;
+		}
+		return elementAt(head);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#getLast()
+	 */
+	@Override
+	public final E getLast(){
+		if (live == 0){
+			return null;
+		}
+		return elementAt(previousLive(head - 1));
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#get(int)
+	 */
+	@Override
+	public final E get(int index){
+		if ((index < 0 || index >= live)){
+			throw new IndexOutOfBoundsException();
+		}
+		return elementAt(slotAt(index));
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#indexOf(E)
+	 */
+	@Override
+	public final int indexOf(E element){
+		Integer s = (element == null) ? null : slotOf.get(element);
+		if (s == null){
+			return -1;
+		}
+		int target = s.intValue();
+		if (used == live){
+			return wrap(target - head);
+		}
+		int i = 0;
+		for (int p = head; p != target; p = wrap(p + 1)){
+			if (slots[p] != null){
+				i++;
+			}
+		}
+		return i;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#isEmpty()
+	 */
+	@Override
+	public final boolean isEmpty(){
+		return live == 0;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#next(E)
+	 */
+	@Override
+	public final E next(E previousElement){
+		if (previousElement == null){
+			throw new NullPointerException();
+		}
+		Integer s = slotOf.get(previousElement);
+		if (s == null){
+			return null;
+		}
+		return elementAt(nextLive(s.intValue() + 1));
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#previous(E)
+	 */
+	@Override
+	public final E previous(E nextElement){
+		if (nextElement == null){
+			throw new NullPointerException();
+		}
+		Integer s = slotOf.get(nextElement);
+		if (s == null){
+			return null;
+		}
+		return elementAt(previousLive(s.intValue() - 1));
+	}
+
+	/**
+	 * Removes the specified element from this ring, if it is present, by leaving a tombstone in its slot.
+	 * <p>
+	 * This takes constant time, amortized over the compactions that tombstones eventually cause.
+	 * @see com.underplex.tool.Ring#remove(Object)
+	 */
+	@Override
+	public final boolean remove(E element){
+		if (element == null){
+			throw new NullPointerException();
+		}
+		Integer s = slotOf.remove(element);
+		if (s == null){
+			return false;
+		}
+		int slot = s.intValue();
+		slots[slot] = null;
+		live--;
+		if (live == 0){
+			clear();
+		} else {
+			int following = nextLive(slot + 1);
+			if (slot == head){
+				head = following;
+			}
+			reanchor(element, elementAt(following));
+			int tombstones = used - live;
+			if (tombstones >= MIN_TOMBSTONES && tombstones > live){
+				rebuild(head);
+			}
+		}
+		return true;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#contains(E)
+	 */
+	@Override
+	public final boolean contains(E element){
+		return element != null && slotOf.containsKey(element);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#size()
+	 */
+	@Override
+	public final int size(){
+		return live;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.underplex.tool.Ring#toList()
+	 */
+	@Override
+	public final List<E> toList(){
+		List<E> list = new ArrayList<E>(live);
+		if (live > 0){
+			int p = head;
+			do {
+				if (slots[p] != null){
+					list.add(elementAt(p));
+				}
+				p = wrap(p + 1);
+			} while (p != head);
+		}
+		return list;
+	}
+
+	/**
+	 * Returns a new cursor positioned at the first element of this ring.
+	 * <p>
+	 * The cursor finds the slot of its element through the hash index, so each move only skips tombstones. When its element is removed the
+	 * ring moves it to the gap before the element that followed, which works the same however the elements have been moved since.
+	 * @see com.underplex.tool.Ring#cursor()
+	 */
+	@Override
+	public final RingCursor<E> cursor(){
+		if (cursors.size() >= pruneAt){
+			for (int i = cursors.size() - 1; i >= 0; i--){
+				if (cursors.get(i).get() == null){
+					cursors.set(i, cursors.get(cursors.size() - 1));
+					cursors.remove(cursors.size() - 1);
+				}
+			}
+			pruneAt = Math.max(DEFAULT_CAPACITY, cursors.size() * 2);
+		}
+		TombstoneCursor c = new TombstoneCursor();
+		cursors.add(new WeakReference<TombstoneCursor>(c));
+		return c;
+	}
+
+	@SuppressWarnings("unchecked")
+	private E elementAt(int slot){
+		return (E) slots[slot];
+	}
+
+	/**
+	 * Brings a slot number that is at most one step outside {@code 0} to {@code used - 1} back into range.
+	 */
+	private int wrap(int slot){
+		if (slot >= used){
+			return slot - used;
+		} else if (slot < 0){
+			return slot + used;
+		}
+		return slot;
+	}
+
+	/**
+	 * Returns the first slot holding an element at or after {@code from}, wrapping around. The ring must not be empty.
+	 */
+	private int nextLive(int from){
+		int p = wrap(from);
+		while (slots[p] == null){
+			p = (p + 1 == used) ? 0 : p + 1;
+		}
+		return p;
+	}
+
+	/**
+	 * Returns the last slot holding an element at or before {@code from}, wrapping around. The ring must not be empty.
+	 */
+	private int previousLive(int from){
+		int p = wrap(from);
+		while (slots[p] == null){
+			p = (p == 0) ? used - 1 : p - 1;
+		}
+		return p;
+	}
+
+	/**
+	 * Returns the slot of the element with the specified index, which must be valid.
+	 */
+	private int slotAt(int index){
+		if (used == live){
+			return wrap(head + index);
+		}
+		int p = head;
+		for (int i = 0; i < index; i++){
+			p = nextLive(p + 1);
+		}
+		return p;
+	}
+
+	/**
+	 * Puts the element into an empty ring.
+	 */
+	private void placeAlone(E element){
+		slots[0] = element;
+		slotOf.put(element, 0);
+		used = 1;
+		live = 1;
+		head = 0;
+	}
+
+	/**
+	 * Puts an element, which must not be present, just before the element in slot {@code successor}, making it first if {@code makeHead}.
+	 */
+	private void insertBefore(int successor, E element, boolean makeHead){
+		int p = wrap(successor - 1);
+		if (slots[p] != null){
+			if (successor == 0 && used < slots.length){
+				// slots after the last one in use come before slot 0 in the ring
+				p = used++;
+			} else if (shiftUp(successor)){
+				p = successor;
+			} else {
+				rebuild(successor);
+				p = used++;
+			}
+		}
+		slots[p] = element;
+		slotOf.put(element, p);
+		live++;
+		if (makeHead){
+			head = p;
+		}
+	}
+
+	/**
+	 * Moves the elements from slot {@code from} up one slot each, as far as a nearby tombstone or free slot at the end, so that slot
+	 * {@code from} is left empty. Returns false, changing nothing, if no such slot is close enough.
+	 */
+	private boolean shiftUp(int from){
+		int free = from + 1;
+		while (free < used && slots[free] != null){
+			if (free - from == MAX_SHIFT){
+				return false;
+			}
+			free++;
+		}
+		if (free == slots.length){
+			return false;
+		} else if (free == used){
+			used++;
+		}
+		for (int q = free; q > from; q--){
+			slots[q] = slots[q - 1];
+			slotOf.put(elementAt(q), q);
+		}
+		slots[from] = null;
+		if (head >= from && head < free){
+			head++;
+		}
+		return true;
+	}
+
+	/**
+	 * Stores the elements from slot 0 with no tombstones, in ring order starting with the element in slot {@code start}, leaving at least
+	 * as many free slots at the end as there are elements.
+	 */
+	private void rebuild(int start){
+		Object[] old = slots;
+		int oldUsed = used;
+		Object first = old[head];
+		slots = new Object[Math.max(DEFAULT_CAPACITY, live * 2)];
+		used = 0;
+		int p = start;
+		do {
+			if (old[p] != null){
+				slots[used] = old[p];
+				slotOf.put(elementAt(used), used);
+				used++;
+			}
+			p = (p + 1 == oldUsed) ? 0 : p + 1;
+		} while (p != start);
+		head = slotOf.get(first).intValue();
+	}
+
+	/**
+	 * Writes the size followed by each element in order, so tombstones are never written.
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeInt(live);
+		for (E e : toList()){
+			out.writeObject(e);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		int length = in.readInt();
+		if (length < 0){
+			throw new IOException("negative size");
+		}
+		init();
+		List<E> order = new ArrayList<E>(length);
+		for (int i = 0; i < length; i++){
+			order.add((E) in.readObject());
+		}
+		for (E e : order){
+			if (!addLast(e)){
+				throw new IOException("duplicate element");
+			}
+		}
+	}
+
+	/**
+	 * Moves every cursor at the removed element, or in the gap before it, to the gap before its successor. If the successor is {@code null}
+	 * because the ring has been emptied, every cursor is left with no position.
+	 */
+	private void reanchor(E removed, E successor){
+		for (WeakReference<TombstoneCursor> ref : cursors){
+			TombstoneCursor c = ref.get();
+			if (c == null){
+				continue;
+			} else if (successor == null){
+				c.element = null;
+				c.following = null;
+			} else if (removed.equals(c.element) || removed.equals(c.following)){
+				c.element = null;
+				c.following = successor;
+			}
+		}
+	}
+
+	/**
+	 * Cursor remembering its element, or the element following the gap it is in.
+	 * <p>
+	 * Both are always in the ring, since the ring moves the cursor on whenever either is removed, so the cursor never depends on slots
+	 * staying put.
+	 */
+	private final class TombstoneCursor implements RingCursor<E> {
+
+		/**
+		 * Element at the cursor, or {@code null} if the cursor is in a gap or has no position.
+		 */
+		private E element;
+
+		/**
+		 * Element just after the gap the cursor is in, or {@code null} if the cursor is not in a gap.
+		 */
+		private E following;
+
+		private TombstoneCursor(){
+			this.element = getFirst();
+		}
+
+		@Override
+		public E current(){
+			return element;
+		}
+
+		@Override
+		public E advance(){
+			if (live == 0){
+				return moveToSlot(-1);
+			} else if (following != null){
+				return moveToSlot(slotOf.get(following).intValue());
+			} else if (element == null){
+				return moveToSlot(head);
+			}
+			return moveToSlot(nextLive(slotOf.get(element).intValue() + 1));
+		}
+
+		@Override
+		public E retreat(){
+			if (live == 0){
+				return moveToSlot(-1);
+			}
+			// a cursor with no position retreats to the last element, as though in the gap before the first
+			E after = (element != null) ? element : following;
+			int s = (after == null) ? head : slotOf.get(after).intValue();
+			return moveToSlot(previousLive(s - 1));
+		}
+
+		@Override
+		public void moveTo(E e){
+			if (e == null){
+				throw new NullPointerException();
+			}
+			Integer s = slotOf.get(e);
+			if (s == null){
+				throw new IllegalArgumentException();
+			}
+			moveToSlot(s.intValue());
+		}
+
+		/**
+		 * Moves to the element in the slot, or to no position if the slot is -1.
+		 */
+		private E moveToSlot(int s){
+			element = (s < 0) ? null : elementAt(s);
+			following = null;
+			return element;
+		}
+	}
+}
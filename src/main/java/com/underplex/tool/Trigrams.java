@@ -0,0 +1,68 @@
+package com.underplex.tool;
+
+import java.util.Arrays;
+
+/**
+ * Static helpers for indexing strings by their trigrams, the runs of three consecutive characters in them.
+ * <p>
+ * A string can only contain another if it has every trigram of the other, so the elements holding all the trigrams of a search term are
+ * the only ones worth checking for it. Trigrams are packed into a {@code long}, 16 bits per character, and the elements holding each
+ * are kept as an increasing array of positions, called a posting list here.
+ *
+ * @author Brandon Irvine
+ */
+final class Trigrams {
+
+	private Trigrams(){
+		// don't instantiate
+	}
+
+	/**
+	 * Returns the trigram starting at {@code i} of {@code s}, which must have at least {@code i + 3} characters.
+	 */
+	static long at(CharSequence s, int i){
+		return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+	}
+
+	/**
+	 * Returns the distinct trigrams of {@code s}, in increasing order.
+	 */
+	static long[] of(CharSequence s){
+		int n = s.length() - 2;
+		if (n <= 0){
+			return new long[0];
+		}
+		long[] trigrams = new long[n];
+		for (int i = 0; i < n; i++){
+			trigrams[i] = at(s, i);
+		}
+		Arrays.sort(trigrams);
+		int distinct = 0;
+		for (int i = 0; i < n; i++){
+			if (i == 0 || trigrams[i] != trigrams[i - 1]){
+				trigrams[distinct++] = trigrams[i];
+			}
+		}
+		return Arrays.copyOf(trigrams, distinct);
+	}
+
+	/**
+	 * Returns the positions in both {@code a} and {@code b}, which must be increasing.
+	 */
+	static int[] intersect(int[] a, int[] b){
+		int[] both = new int[Math.min(a.length, b.length)];
+		int n = 0;
+		for (int i = 0, j = 0; i < a.length && j < b.length; ){
+			if (a[i] < b[j]){
+				i++;
+			} else if (a[i] > b[j]){
+				j++;
+			} else {
+				both[n++] = a[i];
+				i++;
+				j++;
+			}
+		}
+		return n == both.length ? both : Arrays.copyOf(both, n);
+	}
+}
@@ -0,0 +1,624 @@
+package com.underplex.tool.test;
+
+import java.math.BigInteger;
+import java.io.File;
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import com.underplex.tool.BitCombiner;
+import com.underplex.tool.BranchAndBound;
+import com.underplex.tool.CombinationCache;
+import com.underplex.tool.CombinationFile;
+import com.underplex.tool.Combiner;
+import com.underplex.tool.SwapVisitor;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class CombinerTest 
+    extends TestCase
+{
+	public CombinerTest( String testName )
+    {
+        super( testName );
+    }
+
+    /**
+     * @return the suite of tests being tested
+     */
+    public static Test suite()
+    {
+        return new TestSuite( CombinerTest.class );
+    }
+    
+    public void testIterateK(){
+    	Set<Integer> pool = pool(7);
+    	for (int k = -1; k <= 8; k++){
+    		Set<Set<Integer>> expected = Combiner.chooseK(pool, k);
+    		Set<Set<Integer>> actual = new HashSet<Set<Integer>>();
+    		int count = 0;
+    		for (Iterator<Set<Integer>> it = Combiner.iterateK(pool, k); it.hasNext(); ){
+    			actual.add(it.next());
+    			count++;
+    		}
+    		assertEquals(expected.size(), count);
+    		assertEquals(expected, actual);
+    		assertEquals(expected, Combiner.streamK(pool, k).collect(Collectors.toSet()));
+    	}
+    	
+    	Iterator<Set<Integer>> empty = Combiner.iterateK(null, 2);
+    	assertTrue(empty.next().isEmpty());
+    	assertFalse(empty.hasNext());
+    	try {
+    		empty.next();
+    		fail();
+    	} catch (NoSuchElementException e){
+    		// expected
+    	}
+    	
+    	// lexicographic in the iteration order of the pool
+    	List<Set<Integer>> ordered = Combiner.streamK(pool(4), 2).collect(Collectors.toList());
+    	assertEquals(6, ordered.size());
+    	assertEquals(pool(2), ordered.get(0));
+    	assertEquals(new HashSet<Integer>(Arrays.asList(2, 3)), ordered.get(5));
+    }
+    
+    public void testBitCombiner(){
+    	List<Integer> list = new ArrayList<Integer>(pool(9));
+    	for (int k = 0; k <= 9; k++){
+    		Set<Set<Integer>> expected = Combiner.chooseK(new HashSet<Integer>(list), k);
+    		Set<Set<Integer>> actual = new HashSet<Set<Integer>>();
+    		long[] previous = {-1};
+    		int[] count = {0};
+    		BitCombiner.forEachMask(9, k, mask -> {
+    			assertTrue(mask > previous[0]);
+    			previous[0] = mask;
+    			actual.add(BitCombiner.toSet(list, mask));
+    			count[0]++;
+    		});
+    		assertEquals(expected.size(), count[0]);
+    		assertEquals(expected, actual);
+    	}
+    	
+    	// the top bit of a full 64 element pool
+    	int[] count = {0};
+    	BitCombiner.forEachMask(64, 63, mask -> count[0]++);
+    	assertEquals(64, count[0]);
+    	assertEquals(-1L, BitCombiner.firstMask(64));
+    	assertEquals(0, BitCombiner.nextMask(-1L, 64));
+    	assertEquals(0, BitCombiner.nextMask(1L << 63, 64));
+    	assertEquals(0, BitCombiner.nextMask(0b1100, 4));
+    	
+    	long mask = BitCombiner.toMask(list, Arrays.asList(1, 4, 8));
+    	assertEquals(0b100010010L, mask);
+    	assertEquals(Arrays.asList(1, 4, 8), BitCombiner.toList(list, mask));
+    	assertTrue(Arrays.equals(new int[]{1, 4, 8}, BitCombiner.toIndices(mask)));
+    	try {
+    		BitCombiner.toMask(list, Arrays.asList(10));
+    		fail();
+    	} catch (IllegalArgumentException e){
+    		// expected
+    	}
+    }
+    
+    public void testParallelK(){
+    	Set<Integer> pool = pool(12);
+    	for (int k = 0; k <= 12; k++){
+    		Set<Set<Integer>> expected = Combiner.chooseK(pool, k);
+    		assertEquals(expected.size(), Combiner.spliteratorK(pool, k).estimateSize());
+    		List<Set<Integer>> parallel = Combiner.streamK(pool, k, true).collect(Collectors.toList());
+    		assertEquals(expected.size(), parallel.size());
+    		assertEquals(expected, new HashSet<Set<Integer>>(parallel));
+    		// encounter order is kept
+    		assertEquals(Combiner.streamK(pool, k).collect(Collectors.toList()), parallel);
+    	}
+    	
+    	// splitting part way through
+    	Spliterator<Set<Integer>> s = Combiner.spliteratorK(pool, 3);
+    	List<Set<Integer>> all = new ArrayList<Set<Integer>>();
+    	for (int i = 0; i < 5; i++){
+    		s.tryAdvance(all::add);
+    	}
+    	Spliterator<Set<Integer>> prefix = s.trySplit();
+    	assertEquals(215, prefix.estimateSize() + s.estimateSize());
+    	prefix.forEachRemaining(all::add);
+    	s.forEachRemaining(all::add);
+    	assertEquals(Combiner.streamK(pool, 3).collect(Collectors.toList()), all);
+    	
+    	// too many to number, but still streams
+    	Set<Integer> big = pool(100);
+    	assertEquals(3, Combiner.streamK(big, 50, true).limit(3).count());
+    	assertEquals(Long.MAX_VALUE, Combiner.spliteratorK(big, 50).estimateSize());
+    }
+    
+    public void testRankK(){
+    	List<Integer> list = new ArrayList<Integer>(pool(10));
+    	for (int k = 0; k <= 10; k++){
+    		long rank = 0;
+    		for (Iterator<Set<Integer>> it = Combiner.iterateK(new LinkedHashSet<Integer>(list), k); it.hasNext(); rank++){
+    			Set<Integer> combination = it.next();
+    			assertEquals(rank, Combiner.rankK(list, combination));
+    			assertEquals(combination, Combiner.unrankK(list, k, rank));
+    		}
+    		assertEquals(Combiner.countK(10, k), k == 0 ? 1 : rank);
+    	}
+    	assertEquals(5, Combiner.rankK(new int[]{2, 3}, 4));
+    	assertTrue(Arrays.equals(new int[]{0, 2}, Combiner.unrankK(1, 4, 2)));
+    	
+    	assertEquals(BigInteger.valueOf(Combiner.countK(60, 30)), Combiner.countKExact(60, 30));
+    	assertEquals(new BigInteger("100891344545564193334812497256"), Combiner.countKExact(100, 50));
+    	try {
+    		Combiner.countK(100, 50);
+    		fail();
+    	} catch (ArithmeticException e){
+    		// expected
+    	}
+    	
+    	// the last combination of a count near the top of long
+    	long last = Combiner.countK(66, 33) - 1;
+    	int[] indices = Combiner.unrankK(last, 66, 33);
+    	assertEquals(33, indices[0]);
+    	assertEquals(last, Combiner.rankK(indices, 66));
+    	
+    	// a share from the middle
+    	List<Set<Integer>> all = Combiner.streamK(new LinkedHashSet<Integer>(list), 4).collect(Collectors.toList());
+    	List<Set<Integer>> share = StreamSupport.stream(Combiner.spliteratorK(list, 4, 50, 120), true).collect(Collectors.toList());
+    	assertEquals(all.subList(50, 120), share);
+    	
+    	try {
+    		Combiner.rankK(new int[]{1, 1}, 4);
+    		fail();
+    	} catch (IllegalArgumentException e){
+    		// expected
+    	}
+    	try {
+    		Combiner.unrankK(6, 4, 2);
+    		fail();
+    	} catch (IllegalArgumentException e){
+    		// expected
+    	}
+    }
+    
+    public void testOneFromEach(){
+    	Set<Set<String>> among = new LinkedHashSet<Set<String>>();
+    	among.add(new LinkedHashSet<String>(Arrays.asList("a", "b", "c")));
+    	among.add(new LinkedHashSet<String>());
+    	among.add(new LinkedHashSet<String>(Arrays.asList("x")));
+    	among.add(new LinkedHashSet<String>(Arrays.asList("1", "2")));
+    	
+    	List<List<String>> choices = new ArrayList<List<String>>();
+    	for (Iterator<List<String>> it = Combiner.iterateOneFromEach(among); it.hasNext(); ){
+    		choices.add(it.next());
+    	}
+    	assertEquals(6, choices.size());
+    	assertEquals(Arrays.asList("a", "x", "1"), choices.get(0));
+    	assertEquals(Arrays.asList("a", "x", "2"), choices.get(1));
+    	assertEquals(Arrays.asList("c", "x", "2"), choices.get(5));
+    	
+    	Set<Set<String>> sets = new HashSet<Set<String>>();
+    	for (List<String> choice : choices){
+    		sets.add(new HashSet<String>(choice));
+    	}
+    	assertEquals(Combiner.chooseOneFromEach(among), sets);
+    	
+    	assertEquals(choices, Combiner.streamOneFromEach(among, true).collect(Collectors.toList()));
+    	assertEquals(Arrays.asList(Arrays.asList()), Combiner.streamOneFromEach(null, false).collect(Collectors.toList()));
+    	
+    	// a product far too large to store
+    	List<List<Integer>> groups = new ArrayList<List<Integer>>();
+    	for (int g = 0; g < 8; g++){
+    		groups.add(new ArrayList<Integer>(pool(10)));
+    	}
+    	assertEquals(100000000L, Combiner.streamOneFromEach(groups, true).spliterator().estimateSize());
+    	List<Integer> last = Combiner.streamOneFromEach(groups.subList(0, 5), true).skip(99999L).findFirst().get();
+    	assertEquals(Arrays.asList(9, 9, 9, 9, 9), last);
+    }
+    
+    public void testSampleK(){
+    	Random random = new Random(15);
+    	List<Integer> list = new ArrayList<Integer>(pool(6));
+    	
+    	// every combination of 2 from 6 turns up about equally often
+    	int[] seen = new int[15];
+    	for (int i = 0; i < 15000; i++){
+    		Set<Integer> s = Combiner.sampleK(list, 2, random);
+    		assertEquals(2, s.size());
+    		seen[(int) Combiner.rankK(list, s)]++;
+    	}
+    	for (int count : seen){
+    		assertTrue(count > 800 && count < 1200);
+    	}
+    	
+    	int[] indices = Combiner.sampleK(1000000, 20, random);
+    	assertEquals(20, indices.length);
+    	for (int i = 1; i < indices.length; i++){
+    		assertTrue(indices[i] > indices[i - 1]);
+    	}
+    	assertEquals(0, Combiner.sampleK(5, 0, random).length);
+    	
+    	List<Set<Integer>> all = Combiner.sampleK(list, 3, 20, random);
+    	assertEquals(Combiner.chooseK(new HashSet<Integer>(list), 3), new HashSet<Set<Integer>>(all));
+    	
+    	List<Integer> big = new ArrayList<Integer>(pool(60));
+    	List<Set<Integer>> some = Combiner.sampleK(big, 30, 1000, random);
+    	assertEquals(1000, new HashSet<Set<Integer>>(some).size());
+    	for (int i = 1; i < some.size(); i++){
+    		assertTrue(Combiner.rankK(big, some.get(i)) > Combiner.rankK(big, some.get(i - 1)));
+    	}
+    	List<Integer> huge = new ArrayList<Integer>(pool(100));
+    	assertEquals(10, new HashSet<Set<Integer>>(Combiner.sampleK(huge, 50, 10, random)).size());
+    	
+    	try {
+    		Combiner.sampleK(list, 3, 21, random);
+    		fail();
+    	} catch (IllegalArgumentException e){
+    		// expected
+    	}
+    }
+    
+    public void testRevolvingDoor(){
+    	for (int n = 0; n <= 9; n++){
+    		List<Integer> list = new ArrayList<Integer>(pool(n));
+    		for (int k = 0; k <= n; k++){
+    			Set<Set<Integer>> visited = new HashSet<Set<Integer>>();
+    			Set<Integer> current = new HashSet<Integer>();
+    			int[] sum = {0, 0};
+    			Combiner.revolvingDoor(list, k, new SwapVisitor<Integer>(){
+    				@Override
+    				public void start(List<Integer> first){
+    					current.addAll(first);
+    					visited.add(new HashSet<Integer>(current));
+    					for (int i : first){
+    						sum[0] += i;
+    					}
+    				}
+    				@Override
+    				public void onSwap(Integer out, Integer in){
+    					assertTrue(current.remove(out));
+    					assertTrue(current.add(in));
+    					assertTrue(visited.add(new HashSet<Integer>(current)));
+    					sum[0] += in - out;
+    					sum[1]++;
+    				}
+    			});
+    			assertEquals(Combiner.countK(n, k), visited.size());
+    			assertEquals(Combiner.countK(n, k) - 1, sum[1]);
+    			int total = 0;
+    			for (int i : current){
+    				total += i;
+    			}
+    			assertEquals(total, sum[0]);
+    		}
+    	}
+    	
+    	// a lambda is enough when the start is known
+    	int[] swaps = {0};
+    	Combiner.revolvingDoor(new ArrayList<Integer>(pool(20)), 10, (out, in) -> swaps[0]++);
+    	assertEquals(184755, swaps[0]);
+    }
+    
+    public void testBestK(){
+    	// a knapsack: choose 5 items of most value within a weight budget
+    	Random random = new Random(17);
+    	int n = 24;
+    	int[] weight = new int[n];
+    	int[] value = new int[n];
+    	for (int i = 0; i < n; i++){
+    		weight[i] = 1 + random.nextInt(20);
+    		value[i] = 1 + random.nextInt(50);
+    	}
+    	int budget = 40;
+    	List<Integer> list = new ArrayList<Integer>(pool(n));
+    	
+    	Knapsack search = new Knapsack(value, 5){
+    		@Override
+    		public boolean feasible(List<Integer> partial){
+    			int w = 0;
+    			for (int i : partial){
+    				w += weight[i];
+    			}
+    			return w <= budget;
+    		}
+    	};
+    	Set<Integer> best = Combiner.bestK(list, 5, search);
+    	
+    	// the same by brute force
+    	int bestValue = -1;
+    	for (Set<Integer> s : (Iterable<Set<Integer>>) () -> Combiner.iterateK(new HashSet<Integer>(list), 5)){
+    		int w = 0;
+    		int v = 0;
+    		for (int i : s){
+    			w += weight[i];
+    			v += value[i];
+    		}
+    		if (w <= budget){
+    			bestValue = Math.max(bestValue, v);
+    		}
+    	}
+    	int v = 0;
+    	int w = 0;
+    	for (int i : best){
+    		v += value[i];
+    		w += weight[i];
+    	}
+    	assertEquals(5, best.size());
+    	assertTrue(w <= budget);
+    	assertEquals(bestValue, v);
+    	assertTrue(search.scored * 100 < Combiner.countK(n, 5));
+    	
+    	// the bound alone prunes, with every combination feasible
+    	Knapsack unlimited = new Knapsack(value, 5);
+    	best = Combiner.bestK(list, 5, unlimited);
+    	List<Integer> values = new ArrayList<Integer>();
+    	for (int i = 0; i < n; i++){
+    		values.add(value[i]);
+    	}
+    	values.sort(null);
+    	int top = 0;
+    	for (int j = 1; j <= 5; j++){
+    		top += values.get(n - j);
+    	}
+    	assertTrue(unlimited.scored * 100 < Combiner.countK(n, 5));
+    	assertEquals(top, unlimited.score(new ArrayList<Integer>(best)), 0);
+    	
+    	// nothing feasible
+    	assertNull(Combiner.bestK(list, 3, new BranchAndBound<Integer>(){
+    		@Override
+    		public boolean feasible(List<Integer> partial){
+    			return partial.size() < 2;
+    		}
+    		@Override
+    		public double bound(List<Integer> partial, List<Integer> remaining){
+    			return 0;
+    		}
+    		@Override
+    		public double score(List<Integer> combination){
+    			return 0;
+    		}
+    	}));
+    }
+    
+    /**
+     * Scores a combination of items by their total value, counting the combinations scored, and bounds a partial one by adding the values
+     * of the best remaining items.
+     */
+    private static class Knapsack implements BranchAndBound<Integer> {
+    	
+    	private final int[] value;
+    	
+    	private final int k;
+    	
+    	private int scored;
+    	
+    	private Knapsack(int[] value, int k){
+    		this.value = value;
+    		this.k = k;
+    	}
+    	
+    	@Override
+    	public double bound(List<Integer> partial, List<Integer> remaining){
+    		int v = 0;
+    		for (int i : partial){
+    			v += value[i];
+    		}
+    		List<Integer> values = new ArrayList<Integer>();
+    		for (int i : remaining){
+    			values.add(value[i]);
+    		}
+    		values.sort(null);
+    		for (int j = 0; j < k - partial.size(); j++){
+    			v += values.get(values.size() - 1 - j);
+    		}
+    		return v;
+    	}
+    	
+    	@Override
+    	public double score(List<Integer> combination){
+    		assertEquals(k, combination.size());
+    		scored++;
+    		int v = 0;
+    		for (int i : combination){
+    			v += value[i];
+    		}
+    		return v;
+    	}
+    }
+    
+    public void testPermutations(){
+    	List<String> items = Arrays.asList("a", "b", "c", "d", "e");
+    	List<List<String>> all = new ArrayList<List<String>>();
+    	for (Iterator<List<String>> it = Combiner.iteratePermutations(items); it.hasNext(); ){
+    		all.add(it.next());
+    	}
+    	assertEquals(120, all.size());
+    	assertEquals(120, new HashSet<List<String>>(all).size());
+    	assertEquals(items, all.get(0));
+    	assertEquals(Arrays.asList("e", "d", "c", "b", "a"), all.get(119));
+    	assertEquals(all, Combiner.streamPermutations(items, true).collect(Collectors.toList()));
+    	assertEquals(Arrays.asList(Arrays.asList()), Combiner.streamPermutations(Arrays.asList(), false).collect(Collectors.toList()));
+    	
+    	int[] indices = {0, 1, 2, 3, 4, 5, 6};
+    	long rank = 0;
+    	do {
+    		assertEquals(rank, Combiner.rankPermutation(indices));
+    		assertTrue(Arrays.equals(indices, Combiner.unrankPermutation(rank, 7)));
+    		rank++;
+    	} while (Combiner.nextPermutation(indices));
+    	assertEquals(Combiner.countPermutations(7), rank);
+    	assertTrue(Arrays.equals(new int[]{6, 5, 4, 3, 2, 1, 0}, indices));
+    	
+    	long last = Combiner.countPermutations(20) - 1;
+    	assertEquals(last, Combiner.rankPermutation(Combiner.unrankPermutation(last, 20)));
+    	try {
+    		Combiner.countPermutations(21);
+    		fail();
+    	} catch (ArithmeticException e){
+    		// expected
+    	}
+    	try {
+    		Combiner.rankPermutation(new int[]{0, 2, 2});
+    		fail();
+    	} catch (IllegalArgumentException e){
+    		// expected
+    	}
+    	
+    	// the array handed to the action is reused, so its rank is taken straight away
+    	Set<Long> ranks = Collections.synchronizedSet(new HashSet<Long>());
+    	Combiner.forEachPermutation(8, true, p -> ranks.add(Combiner.rankPermutation(p)));
+    	assertEquals(40320, ranks.size());
+    	
+    	// more than can be ranked still iterates
+    	Iterator<List<Integer>> big = Combiner.iteratePermutations(new ArrayList<Integer>(pool(25)));
+    	big.next();
+    	assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 24, 23), big.next());
+    }
+    
+    public void testCombinationCache(){
+    	CombinationCache cache = new CombinationCache(100);
+    	Set<Integer> pool = pool(6);
+    	Set<Set<Integer>> first = cache.chooseK(pool, 3);
+    	assertEquals(Combiner.chooseK(pool, 3), first);
+    	assertEquals(60, cache.weight());
+    	// same contents in another order is the same pool
+    	Set<Integer> reordered = new LinkedHashSet<Integer>(Arrays.asList(5, 4, 3, 2, 1, 0));
+    	assertSame(first, cache.chooseK(reordered, 3));
+    	assertEquals(1, cache.hits());
+    	assertEquals(1, cache.misses());
+    	try {
+    		first.iterator().next().add(7);
+    		fail();
+    	} catch (UnsupportedOperationException e){
+    		// expected
+    	}
+    	
+    	cache.chooseK(pool, 2);
+    	cache.chooseK(pool, 1);
+    	assertEquals(3, cache.size());
+    	assertEquals(96, cache.weight());
+    	cache.chooseK(pool, 3);
+    	// 10 * 2 more goes over the bound, so the least recently used goes
+    	cache.chooseK(pool(5), 2);
+    	assertEquals(3, cache.size());
+    	assertEquals(86, cache.weight());
+    	long misses = cache.misses();
+    	cache.chooseK(pool, 3);
+    	cache.chooseK(pool, 1);
+    	assertEquals(misses, cache.misses());
+    	cache.chooseK(pool, 2);
+    	assertEquals(misses + 1, cache.misses());
+    	
+    	// too heavy to cache at all
+    	cache.chooseK(pool(10), 5);
+    	assertTrue(cache.weight() <= 100);
+    	
+    	IntBuffer packed = cache.chooseKIndices(5, 2);
+    	assertEquals(20, packed.remaining());
+    	assertTrue(packed.isReadOnly());
+    	List<Set<Integer>> ordered = Combiner.streamK(pool(5), 2).collect(Collectors.toList());
+    	for (int r = 0; r < 10; r++){
+    		assertEquals(ordered.get(r), new HashSet<Integer>(Arrays.asList(packed.get(r * 2), packed.get(r * 2 + 1))));
+    	}
+    	misses = cache.misses();
+    	assertEquals(20, cache.chooseKIndices(5, 2).remaining());
+    	assertEquals(misses, cache.misses());
+    	assertEquals(0, cache.chooseKIndices(5, 0).remaining());
+    	
+    	cache.clear();
+    	assertEquals(0, cache.size());
+    	assertEquals(0, cache.weight());
+    }
+    
+    public void testCombinationFile() throws IOException {
+    	File file = File.createTempFile("combinations", ".bin");
+    	file.deleteOnExit();
+    	
+    	Set<Integer> pool = pool(10);
+    	try (CombinationFile<Integer> combinations = CombinationFile.chooseK(pool, 4, file.toPath())){
+    		assertEquals(210, combinations.size());
+    		assertEquals(16 + 210 * 4, file.length());
+    		List<Set<Integer>> expected = Combiner.streamK(pool, 4).collect(Collectors.toList());
+    		// twice over
+    		for (int pass = 0; pass < 2; pass++){
+    			List<Set<Integer>> read = new ArrayList<Set<Integer>>();
+    			for (List<Integer> c : combinations){
+    				read.add(new HashSet<Integer>(c));
+    			}
+    			assertEquals(expected, read);
+    		}
+    		long[] rank = {0};
+    		combinations.forEachIndices(indices -> assertEquals(rank[0]++, Combiner.rankK(indices, 10)));
+    		assertEquals(210, combinations.stream().count());
+    	}
+    	
+    	try (CombinationFile<Integer> combinations = CombinationFile.chooseK(null, 4, file.toPath())){
+    		assertEquals(1, combinations.size());
+    		assertEquals(Arrays.asList(Arrays.asList()), combinations.stream().collect(Collectors.toList()));
+    	}
+    	
+    	// indices wider than a byte
+    	try (CombinationFile<Integer> combinations = CombinationFile.chooseK(pool(300), 2, file.toPath())){
+    		assertEquals(16 + 44850 * 2 * 2, file.length());
+    		Iterator<List<Integer>> it = combinations.iterator();
+    		assertEquals(Arrays.asList(0, 1), it.next());
+    		List<Integer> last = null;
+    		while (it.hasNext()){
+    			last = it.next();
+    		}
+    		assertEquals(Arrays.asList(298, 299), last);
+    	}
+    	
+    	// opened again later
+    	try (CombinationFile<Integer> combinations = CombinationFile.openK(pool(300), 2, file.toPath())){
+    		assertEquals(44850, combinations.size());
+    		assertEquals(Arrays.asList(0, 1), combinations.iterator().next());
+    	}
+    	try {
+    		CombinationFile.openK(pool(300), 3, file.toPath());
+    		fail();
+    	} catch (IOException e){
+    		// expected
+    	}
+    	try {
+    		CombinationFile.openK(pool(200), 2, file.toPath());
+    		fail();
+    	} catch (IOException e){
+    		// expected
+    	}
+    	
+    	List<List<String>> groups = Arrays.asList(Arrays.asList("a", "b"), Arrays.asList(), Arrays.asList("x", "y", "z"));
+    	try (CombinationFile<String> choices = CombinationFile.chooseOneFromEach(groups, file.toPath())){
+    		assertEquals(2, choices.combinationSize());
+    		assertEquals(Combiner.streamOneFromEach(groups, false).collect(Collectors.toList()),
+    				choices.stream().collect(Collectors.toList()));
+    	}
+    	try (CombinationFile<String> choices = CombinationFile.openOneFromEach(groups, file.toPath())){
+    		assertEquals(Combiner.streamOneFromEach(groups, false).collect(Collectors.toList()),
+    				choices.stream().collect(Collectors.toList()));
+    	}
+    }
+    
+    /**
+     * Returns the integers 0 to {@code n - 1} in order.
+     */
+    private static Set<Integer> pool(int n){
+    	Set<Integer> pool = new LinkedHashSet<Integer>();
+    	for (int i = 0; i < n; i++){
+    		pool.add(i);
+    	}
+    	return pool;
+    }
+}
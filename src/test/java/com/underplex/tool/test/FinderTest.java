@@ -0,0 +1,286 @@
+package com.underplex.tool.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.underplex.tool.Finder;
+import com.underplex.tool.FinderIndex;
+import com.underplex.tool.LiveFinderIndex;
+import com.underplex.tool.TermMatcher;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class FinderTest 
+    extends TestCase
+{
+	public FinderTest( String testName )
+    {
+        super( testName );
+    }
+
+    /**
+     * @return the suite of tests being tested
+     */
+    public static Test suite()
+    {
+        return new TestSuite( FinderTest.class );
+    }
+    
+    private static final List<String> ROUTES = Arrays.asList("Cadiz to Lisboa", "Lisboa to Madrid", "Madrid to Pamplona",
+    		"Pamplona to Paris", "Paris to Bruxelles", "Bruxelles to Amsterdam", "Marseille to Paris", "Madrid to Barcelona");
+    
+    public void testFinderIndex(){
+    	FinderIndex<String> index = new FinderIndex<String>(ROUTES);
+    	assertEquals(8, index.size());
+    	assertEquals("Madrid to Barcelona", index.find("madrid"));
+    	assertEquals("Lisboa to Madrid", index.find("MADRID", "lis"));
+    	assertEquals("Madrid to Pamplona", index.findExcluding("barcelona", "madrid to"));
+    	assertEquals("Madrid to Barcelona", index.find("o"));
+    	assertEquals("Madrid to Barcelona", index.find());
+    	assertNull(index.find("madrid", "paris"));
+    	assertNull(index.find("zzz"));
+    	assertNull(new FinderIndex<String>(new ArrayList<String>()).find("x"));
+    	
+    	// the same answers as Finder on random searches
+    	List<String> catalog = catalog(500, new Random(21));
+    	FinderIndex<String> big = new FinderIndex<String>(catalog);
+    	Random random = new Random(2);
+    	for (int i = 0; i < 2000; i++){
+    		String[] search = search(catalog, random);
+    		String without = random.nextBoolean() ? piece(catalog, random) : null;
+    		if (without == null){
+    			assertEquals(Finder.find(catalog, search), big.find(search));
+    		} else {
+    			assertEquals(Finder.findExcluding(without, catalog, search), big.findExcluding(without, search));
+    		}
+    	}
+    }
+    
+    public void testTermMatcher(){
+    	assertEquals("Madrid to Barcelona", Finder.find(ROUTES, TermMatcher.of("madrid")));
+    	assertEquals("Lisboa to Madrid", Finder.find(ROUTES, TermMatcher.of("MADRID", "lis")));
+    	assertEquals("Madrid to Pamplona", Finder.find(ROUTES, TermMatcher.excluding("barcelona", "madrid to")));
+    	assertNull(Finder.find(ROUTES, TermMatcher.of("madrid", "paris")));
+    	assertEquals("Madrid to Barcelona", Finder.find(ROUTES, TermMatcher.of()));
+    	assertEquals("Madrid to Barcelona", Finder.find(ROUTES, TermMatcher.of("")));
+    	assertNull(Finder.find(ROUTES, TermMatcher.excluding("", "madrid")));
+    	
+    	// overlapping terms, and one inside another
+    	assertTrue(TermMatcher.of("abab", "bab", "ba").matches("xxABABxx"));
+    	assertFalse(TermMatcher.of("abab", "babb").matches("ababab"));
+    	assertFalse(TermMatcher.excluding("ab", "b").matches("xaby"));
+    	assertTrue(TermMatcher.excluding("abc", "b").matches("xabyabd"));
+    	
+    	// more than 64 terms
+    	String[] many = new String[100];
+    	StringBuilder text = new StringBuilder();
+    	for (int i = 0; i < many.length; i++){
+    		many[i] = "t" + i + ";";
+    		text.append("T").append(i).append(";");
+    	}
+    	assertTrue(TermMatcher.of(many).matches(text));
+    	assertFalse(TermMatcher.of(many).matches(text.substring(3)));
+    	
+    	// the same answers as Finder on random searches
+    	List<String> catalog = catalog(500, new Random(22));
+    	Random random = new Random(3);
+    	for (int i = 0; i < 2000; i++){
+    		String[] search = search(catalog, random);
+    		if (random.nextBoolean()){
+    			assertEquals(Finder.find(catalog, search), Finder.find(catalog, TermMatcher.of(search)));
+    		} else {
+    			String without = piece(catalog, random);
+    			assertEquals(Finder.findExcluding(without, catalog, search), Finder.find(catalog, TermMatcher.excluding(without, search)));
+    		}
+    	}
+    }
+    
+    public void testFindFirstAnyAll(){
+    	assertEquals("Lisboa to Madrid", Finder.findFirst(ROUTES, false, "madrid"));
+    	assertEquals("Lisboa to Madrid", Finder.findFirst(ROUTES, true, "madrid"));
+    	assertEquals(Arrays.asList("Lisboa to Madrid", "Madrid to Pamplona", "Madrid to Barcelona"), Finder.findAll(ROUTES, true, "MADRID"));
+    	assertTrue(Finder.findAny(ROUTES, true, "paris").contains("Paris"));
+    	assertNull(Finder.findAny(ROUTES, false, "rome"));
+    	assertNull(Finder.findFirst(null, true, "rome"));
+    	assertTrue(Finder.findAll(ROUTES, false, "rome").isEmpty());
+    	
+    	List<String> catalog = catalog(10000, new Random(23));
+    	Random random = new Random(4);
+    	for (int i = 0; i < 100; i++){
+    		String[] search = search(catalog, random);
+    		List<String> all = Finder.findAll(catalog, false, search);
+    		assertEquals(all, Finder.findAll(catalog, true, search));
+    		String first = all.isEmpty() ? null : all.get(0);
+    		assertEquals(first, Finder.findFirst(catalog, false, search));
+    		assertEquals(first, Finder.findFirst(catalog, true, search));
+    		String any = Finder.findAny(catalog, true, search);
+    		assertTrue(any == null ? all.isEmpty() : all.contains(any));
+    		assertEquals(all.isEmpty() ? null : all.get(all.size() - 1), Finder.find(catalog, search));
+    	}
+    }
+    
+    public void testKeyExtractor(){
+    	List<Route> routes = new ArrayList<Route>();
+    	for (String r : ROUTES){
+    		routes.add(new Route(r));
+    	}
+    	assertEquals("Madrid to Barcelona", Finder.find(routes, Route::name, "madrid").name());
+    	assertEquals("Lisboa to Madrid", Finder.find(routes, Route::name, "MADRID", "lis").name());
+    	assertEquals("Madrid to Pamplona", Finder.findExcluding("barcelona", routes, Route::name, "madrid to").name());
+    	assertNull(Finder.find(routes, Route::name, "madrid", "paris"));
+    	// toString isn't searched
+    	assertNull(Finder.find(routes, Route::name, "route"));
+    	assertEquals("Lisboa to Madrid", Finder.find(routes, r -> new StringBuilder(r.name()).reverse(), "dirdam", "obsil").name());
+    	
+    	List<String> catalog = catalog(500, new Random(24));
+    	Random random = new Random(5);
+    	for (int i = 0; i < 1000; i++){
+    		String[] search = search(catalog, random);
+    		assertEquals(Finder.find(catalog, search), Finder.find(catalog, s -> s, search));
+    	}
+    }
+    
+    public void testLiveFinderIndex() throws InterruptedException {
+    	LiveFinderIndex<String> index = new LiveFinderIndex<String>(ROUTES);
+    	assertEquals(8, index.size());
+    	assertEquals("Madrid to Barcelona", index.find("madrid"));
+    	assertEquals("Madrid to Pamplona", index.findExcluding("barcelona", "madrid to"));
+    	assertFalse(index.add("Madrid to Pamplona"));
+    	assertTrue(index.remove("Madrid to Barcelona"));
+    	assertFalse(index.remove("Madrid to Barcelona"));
+    	assertEquals("Madrid to Pamplona", index.find("madrid"));
+    	assertTrue(index.add("Madrid to Barcelona"));
+    	assertEquals("Madrid to Barcelona", index.find("MADRID", "o"));
+    	assertEquals(ROUTES, new ArrayList<String>(index));
+    	for (Iterator<String> it = index.iterator(); it.hasNext(); ){
+    		if (it.next().startsWith("Madrid")){
+    			it.remove();
+    		}
+    	}
+    	assertEquals("Lisboa to Madrid", index.find("madrid"));
+    	index.clear();
+    	assertTrue(index.isEmpty());
+    	assertNull(index.find());
+    	
+    	// the same answers as Finder on a list kept in the order added
+    	Random random = new Random(25);
+    	List<String> catalog = catalog(400, random);
+    	List<String> list = new ArrayList<String>();
+    	for (int i = 0; i < 3000; i++){
+    		String name = catalog.get(random.nextInt(catalog.size()));
+    		if (list.contains(name)){
+    			assertTrue(index.remove(name));
+    			list.remove(name);
+    		} else {
+    			assertTrue(index.add(name));
+    			list.add(name);
+    		}
+    		String[] search = search(catalog, random);
+    		if (random.nextBoolean()){
+    			assertEquals(Finder.find(list, search), index.find(search));
+    		} else {
+    			String without = piece(catalog, random);
+    			assertEquals(Finder.findExcluding(without, list, search), index.findExcluding(without, search));
+    		}
+    	}
+    	assertEquals(list, new ArrayList<String>(index));
+    	
+    	// readers alongside a writer only ever find matching elements
+    	AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+    	Thread[] readers = new Thread[3];
+    	for (int r = 0; r < readers.length; r++){
+    		long seed = r;
+    		readers[r] = new Thread(() -> {
+    			Random own = new Random(seed);
+    			try {
+    				for (int i = 0; i < 5000; i++){
+    					String term = piece(catalog, own);
+    					String found = index.find(term);
+    					if (found != null && !found.toUpperCase().contains(term.toUpperCase())){
+    						throw new AssertionError(found + " doesn't contain " + term);
+    					}
+    				}
+    			} catch (Throwable t){
+    				failure.set(t);
+    			}
+    		});
+    		readers[r].start();
+    	}
+    	for (int i = 0; i < 5000; i++){
+    		String name = catalog.get(random.nextInt(catalog.size()));
+    		if (!index.add(name)){
+    			index.remove(name);
+    		}
+    	}
+    	for (Thread t : readers){
+    		t.join();
+    	}
+    	assertNull(failure.get());
+    }
+    
+    /**
+     * Element whose searchable name isn't its {@code toString}.
+     */
+    private static final class Route {
+    	
+    	private final String name;
+    	
+    	Route(String name){
+    		this.name = name;
+    	}
+    	
+    	String name(){
+    		return name;
+    	}
+    	
+    	@Override
+    	public String toString(){
+    		return "Route[" + name + "]";
+    	}
+    }
+    
+    /**
+     * Returns {@code n} names made of random syllables, in mixed case.
+     */
+    static List<String> catalog(int n, Random random){
+    	String[] syllables = {"ca", "DIZ", "lis", "Bo", "a", "MAD", "rid", "pam", "PLO", "na", "pa", "RIS", " ", "-"};
+    	List<String> catalog = new ArrayList<String>();
+    	for (int i = 0; i < n; i++){
+    		StringBuilder b = new StringBuilder();
+    		int length = 3 + random.nextInt(8);
+    		for (int j = 0; j < length; j++){
+    			b.append(syllables[random.nextInt(syllables.length)]);
+    		}
+    		catalog.add(b.toString());
+    	}
+    	return catalog;
+    }
+    
+    /**
+     * Returns from 0 to 2 search terms, mostly pieces of names in the catalog so that some searches succeed.
+     */
+    static String[] search(List<String> catalog, Random random){
+    	String[] search = new String[random.nextInt(3)];
+    	for (int i = 0; i < search.length; i++){
+    		search[i] = piece(catalog, random);
+    	}
+    	return search;
+    }
+    
+    /**
+     * Returns a piece of up to 6 characters of a name in the catalog, sometimes in lower case.
+     */
+    static String piece(List<String> catalog, Random random){
+    	String name = catalog.get(random.nextInt(catalog.size()));
+    	int start = random.nextInt(name.length());
+    	int end = Math.min(name.length(), start + 1 + random.nextInt(6));
+    	String piece = name.substring(start, end);
+    	return random.nextBoolean() ? piece.toLowerCase() : piece;
+    }
+}
@@ -1,9 +1,31 @@
 package com.underplex.tool.test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
+import java.util.Random;
 
 import com.underplex.tool.ArrayRing;
+import com.underplex.tool.CircularArrayRing;
+import com.underplex.tool.ConcurrentRing;
+import com.underplex.tool.HashRing;
+import com.underplex.tool.IntRing;
+import com.underplex.tool.PersistentRing;
 import com.underplex.tool.Ring;
+import com.underplex.tool.RingBuffers;
+import com.underplex.tool.RingCursor;
+import com.underplex.tool.TombstoneRing;
 
 import junit.framework.Test;
 import junit.framework.TestCase;
@@ -91,6 +113,735 @@ public class RingTest
  
        	List<Gamer> myList = players.toList();
        	
+       	assertTrue(myList.get(0).equals(players.getFirst()));
+       	assertTrue(myList.get(0).equals(players.get(0)));
+       	assertTrue(myList.get(1).equals(players.get(1)));
+       	assertTrue(myList.get(2).equals(players.get(2)));
+       	assertTrue(myList.get(2).equals(players.getLast()));
+	}
+    
+    public void testHashRing(){
+    	checkRing(new HashRing<Gamer>());
+    	checkAgainstArrayRing(new HashRing<Integer>());
+    	
+    	Ring<Gamer> players = new HashRing<Gamer>();
+    	for (int i = 0; i < 10; i++){
+    		players.addLast(new Gamer(i, "x"));
+    	}
+    	assertTrue(players.remove(new Gamer(0, "x")));
+    	assertTrue(players.remove(new Gamer(9, "x")));
+    	assertFalse(players.remove(new Gamer(9, "x")));
+    	assertTrue(players.getFirst().getId() == 1);
+    	assertTrue(players.getLast().getId() == 8);
+    	assertTrue(players.next(new Gamer(8, "x")).getId() == 1);
+    	assertTrue(players.previous(new Gamer(1, "x")).getId() == 8);
+    	assertTrue(players.next(new Gamer(9, "x")) == null);
+    	
+    	assertTrue(players.add(3, new Gamer(20, "x")));
+    	assertTrue(players.indexOf(new Gamer(20, "x")) == 3);
+    	assertTrue(players.get(3).getId() == 20);
+    	assertTrue(players.get(6).getId() == 6);
+    	assertTrue(players.add(0, new Gamer(21, "x")));
+    	assertTrue(players.getFirst().getId() == 21);
+    	assertTrue(players.getLast().getId() == 8);
+    	assertFalse(players.contains(null));
+    	
+    	// inserting into the second half of the ring
+    	Ring<Integer> seats = new HashRing<Integer>();
+    	Ring<Integer> expected = new ArrayRing<Integer>();
+    	for (int i = 0; i < 10; i++){
+    		seats.addLast(i);
+    		expected.addLast(i);
+    	}
+    	for (int index : new int[]{7, 9, 6, 11, 5}){
+    		assertTrue(seats.add(index, 100 + index));
+    		expected.add(index, 100 + index);
+    		assertEquals(expected.toList(), seats.toList());
+    	}
+    }
+    
+    public void testCircularArrayRing(){
+    	checkRing(new CircularArrayRing<Gamer>());
+    	checkAgainstArrayRing(new CircularArrayRing<Integer>(1));
+    	
+    	CircularArrayRing<Integer> seats = new CircularArrayRing<Integer>(4);
+    	for (int i = 0; i < 4; i++){
+    		seats.addLast(i);
+    	}
+    	assertTrue(seats.rotate(3));
+    	assertTrue(seats.getFirst() == 3);
+    	assertTrue(seats.getLast() == 2);
+    	assertTrue(seats.get(1) == 0);
+    	assertTrue(seats.rotate(-1));
+    	assertTrue(seats.getFirst() == 2);
+    	assertFalse(seats.rotate(8));
+    	assertTrue(seats.addLast(4)); // grows while wrapped
+    	assertEquals("[2, 3, 0, 1, 4]", seats.toList().toString());
+    }
+    
+    public void testConcurrentRing() throws InterruptedException{
+    	checkRing(new ConcurrentRing<Gamer>());
+    	checkAgainstArrayRing(new ConcurrentRing<Integer>());
+    	
+    	final Ring<Integer> seats = new ConcurrentRing<Integer>();
+    	for (int i = 0; i < 100; i++){
+    		seats.addLast(i);
+    	}
+    	final boolean[] failed = new boolean[1];
+    	Thread reader = new Thread(new Runnable(){
+    		public void run(){
+    			for (int i = 0; i < 100000; i++){
+    				// odd seats are only removed in increasing order, so the seat after 0 is always 1 or 2
+    				Integer next = seats.next(0);
+    				if (next == null || next.intValue() > 2){
+    					failed[0] = true;
+    				}
+    			}
+    		}
+    	});
+    	reader.start();
+    	for (int i = 1; i < 100; i += 2){
+    		seats.remove(i);
+    	}
+    	reader.join();
+    	assertFalse(failed[0]);
+    	assertEquals(50, seats.size());
+    	assertEquals(Integer.valueOf(2), seats.next(0));
+    	assertEquals(Integer.valueOf(0), seats.previous(2));
+    }
+    
+    public void testIntRing(){
+    	IntRing seats = new IntRing(1);
+    	Ring<Integer> expected = new ArrayRing<Integer>();
+    	Random random = new Random(11);
+    	for (int step = 0; step < 5000; step++){
+    		int e = random.nextInt(40);
+    		switch (random.nextInt(6)){
+    		case 0:
+    			assertEquals(expected.addFirst(e), seats.addFirst(e));
+    			break;
+    		case 1:
+    			assertEquals(expected.addLast(e), seats.addLast(e));
+    			break;
+    		case 2:
+    			int index = random.nextInt(expected.size() + 1);
+    			assertEquals(expected.add(index, e), seats.add(index, e));
+    			break;
+    		case 3:
+    			assertEquals(expected.remove(e), seats.remove(e));
+    			break;
+    		case 4:
+    			if (expected.contains(e)){
+    				assertEquals(expected.makeFirst(e), seats.makeFirst(e));
+    			}
+    			break;
+    		default:
+    			if (expected.contains(e)){
+    				assertEquals(expected.next(e).intValue(), seats.next(e));
+    				assertEquals(expected.previous(e).intValue(), seats.previous(e));
+    			}
+    		}
+    		assertEquals(expected.size(), seats.size());
+    		assertEquals(expected.toList().toString(), seats.toString());
+    		assertEquals(expected.indexOf(e), seats.indexOf(e));
+    		if (!expected.isEmpty()){
+    			assertEquals(expected.getFirst().intValue(), seats.getFirst());
+    			assertEquals(expected.getLast().intValue(), seats.getLast());
+    		}
+    	}
+    	
+    	seats.clear();
+    	assertTrue(seats.isEmpty());
+    	for (int i = 0; i < 5; i++){
+    		seats.addLast(i * 10);
+    	}
+    	assertTrue(seats.rotate(-1));
+    	assertEquals(40, seats.getFirst());
+    	assertEquals(0, seats.next(40));
+    	try {
+    		seats.next(7);
+    		fail();
+    	} catch (IllegalArgumentException e){
+    		// expected
+    	}
+    }
+    
+    public void testPersistentRing(){
+    	Ring<Integer> expected = new ArrayRing<Integer>();
+    	PersistentRing<Integer> ring = PersistentRing.empty();
+    	List<PersistentRing<Integer>> versions = new ArrayList<PersistentRing<Integer>>();
+    	List<List<Integer>> contents = new ArrayList<List<Integer>>();
+    	Random random = new Random(13);
+    	for (int step = 0; step < 3000; step++){
+    		Integer e = random.nextInt(60);
+    		PersistentRing<Integer> before = ring;
+    		switch (random.nextInt(6)){
+    		case 0:
+    			ring = ring.addFirst(e);
+    			assertEquals(expected.addFirst(e), ring != before);
+    			break;
+    		case 1:
+    		case 2:
+    			ring = ring.addLast(e);
+    			assertEquals(expected.addLast(e), ring != before);
+    			break;
+    		case 3:
+    			int index = random.nextInt(expected.size() + 1);
+    			ring = ring.add(index, e);
+    			assertEquals(expected.add(index, e), ring != before);
+    			break;
+    		case 4:
+    			ring = ring.remove(e);
+    			assertEquals(expected.remove(e), ring != before);
+    			break;
+    		default:
+    			if (expected.contains(e)){
+    				ring = ring.makeFirst(e);
+    				assertEquals(expected.makeFirst(e), ring != before);
+    			}
+    		}
+    		assertEquals(expected.toList(), ring.toList());
+    		assertEquals(expected.size(), ring.size());
+    		assertEquals(expected.getFirst(), ring.getFirst());
+    		assertEquals(expected.getLast(), ring.getLast());
+    		assertEquals(expected.indexOf(e), ring.indexOf(e));
+    		assertEquals(expected.next(e), ring.next(e));
+    		assertEquals(expected.previous(e), ring.previous(e));
+    		if (!expected.isEmpty()){
+    			int index = random.nextInt(expected.size());
+    			assertEquals(expected.get(index), ring.get(index));
+    		}
+    		if (step % 100 == 0){
+    			versions.add(ring);
+    			contents.add(ring.toList());
+    		}
+    	}
+    	// older versions are untouched by later changes
+    	for (int i = 0; i < versions.size(); i++){
+    		assertEquals(contents.get(i), versions.get(i).toList());
+    	}
+    	
+    	// appending after the first element has moved keeps splitting the same gap, forcing the ring to renumber itself
+    	PersistentRing<Integer> seats = PersistentRing.from(Arrays.asList(0, 1, 2)).makeFirst(1);
+    	for (int i = 3; i < 200; i++){
+    		seats = seats.addLast(i);
+    	}
+    	assertEquals(Integer.valueOf(1), seats.getFirst());
+    	assertEquals(Integer.valueOf(0), seats.previous(3));
+    	assertEquals(Integer.valueOf(199), seats.getLast());
+    	assertEquals(2, seats.indexOf(0));
+    	assertEquals(Integer.valueOf(150), seats.get(150));
+    	assertTrue(seats.clear().isEmpty());
+    	
+    	// adding at the front over and over, with some at the back, never runs out of room
+    	PersistentRing<Integer> queue = PersistentRing.empty();
+    	List<Integer> model = new ArrayList<Integer>();
+    	for (int i = 0; i < 100000; i++){
+    		if (i % 10 == 9){
+    			queue = queue.addLast(i);
+    			model.add(i);
+    		} else {
+    			queue = queue.addFirst(i);
+    			model.add(0, i);
+    		}
+    	}
+    	assertEquals(model, queue.toList());
+    	assertEquals(Integer.valueOf(99998), queue.getFirst());
+    	assertEquals(Integer.valueOf(99999), queue.getLast());
+    	assertEquals(model.get(54321), queue.get(54321));
+    }
+    
+    public void testSerialization() throws Exception{
+    	List<Ring<Integer>> rings = new ArrayList<Ring<Integer>>();
+    	rings.add(new ArrayRing<Integer>());
+    	rings.add(new HashRing<Integer>());
+    	rings.add(new CircularArrayRing<Integer>());
+    	rings.add(new ConcurrentRing<Integer>());
+    	for (Ring<Integer> ring : rings){
+    		for (int i = 0; i < 20; i++){
+    			ring.addLast(i);
+    		}
+    		ring.makeFirst(7);
+    		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    		ObjectOutputStream out = new ObjectOutputStream(bytes);
+    		out.writeObject(ring);
+    		out.close();
+    		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    		@SuppressWarnings("unchecked")
+    		Ring<Integer> copy = (Ring<Integer>) in.readObject();
+    		assertEquals(ring.getClass(), copy.getClass());
+    		assertEquals(ring.toList(), copy.toList());
+    		assertTrue(copy.addLast(99));
+    	}
+    	
+    	// an ArrayRing of 3, 1, 2 as written before the roster was made transient
+    	String old = "rO0ABXNyABxjb20udW5kZXJwbGV4LnRvb2wuQXJyYXlSaW5nAAAAAAAAAAECAAFMAAZyb3N0ZXJ0ABVMamF2YS91dGlsL0FycmF5TGlzdDt4cHNy"
+    			+ "ABNqYXZhLnV0aWwuQXJyYXlMaXN0eIHSHZnHYZ0DAAFJAARzaXpleHAAAAADdwQAAAADc3IAEWphdmEubGFuZy5JbnRlZ2VyEuKgpPeBhzgCAAFJAAV2"
+    			+ "YWx1ZXhyABBqYXZhLmxhbmcuTnVtYmVyhqyVHQuU4IsCAAB4cAAAAANzcQB+AAUAAAABc3EAfgAFAAAAAng=";
+    	ObjectInputStream oldIn = new ObjectInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(old)));
+    	@SuppressWarnings("unchecked")
+    	Ring<Integer> oldRing = (Ring<Integer>) oldIn.readObject();
+    	assertEquals(Arrays.asList(3, 1, 2), oldRing.toList());
+    	assertTrue(oldRing.addLast(4));
+    	
+    	// a corrupted stream holding the same element twice is rejected
+    	Ring<Integer> pair = new CircularArrayRing<Integer>();
+    	pair.addLast(0x0f4241);
+    	pair.addLast(0x0f4242);
+    	ByteArrayOutputStream pairBytes = new ByteArrayOutputStream();
+    	try (ObjectOutputStream out = new ObjectOutputStream(pairBytes)){
+    		out.writeObject(pair);
+    	}
+    	byte[] corrupted = pairBytes.toByteArray();
+    	for (int i = 0; i + 3 < corrupted.length; i++){
+    		if (corrupted[i] == 0 && corrupted[i + 1] == 0x0f && corrupted[i + 2] == 0x42 && corrupted[i + 3] == 0x42){
+    			corrupted[i + 3] = 0x41;
+    		}
+    	}
+    	try {
+    		new ObjectInputStream(new ByteArrayInputStream(corrupted)).readObject();
+    		fail();
+    	} catch (IOException e){
+    		// expected
+    	}
+    	
+    	// many rings in one buffer
+    	ByteBuffer buffer = ByteBuffer.allocate(4096);
+    	RingBuffers.write(buffer, rings, (b, e) -> b.putShort(e.shortValue()));
+    	buffer.flip();
+    	List<Ring<Integer>> read = RingBuffers.read(buffer, b -> Integer.valueOf(b.getShort()));
+    	assertEquals(rings.size(), read.size());
+    	for (int i = 0; i < rings.size(); i++){
+    		assertEquals(rings.get(i).toList(), read.get(i).toList());
+    	}
+    	
+    	// written little-endian, read through a big-endian buffer
+    	buffer.clear();
+    	buffer.order(ByteOrder.LITTLE_ENDIAN);
+    	RingBuffers.write(buffer, rings, (b, e) -> b.putInt(e));
+    	buffer.flip();
+    	buffer.order(ByteOrder.BIG_ENDIAN);
+    	read = RingBuffers.read(buffer, b -> b.getInt());
+    	for (int i = 0; i < rings.size(); i++){
+    		assertEquals(rings.get(i).toList(), read.get(i).toList());
+    	}
+    	assertEquals(ByteOrder.BIG_ENDIAN, buffer.order());
+    	
+    	List<IntRing> seats = new ArrayList<IntRing>();
+    	for (int n = 0; n < 100; n++){
+    		IntRing r = new IntRing();
+    		for (int i = 0; i < n % 9; i++){
+    			r.addLast(n * 10 + i);
+    		}
+    		r.rotate(n);
+    		seats.add(r);
+    	}
+    	File file = File.createTempFile("rings", ".bin");
+    	file.deleteOnExit();
+    	try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)){
+    		ByteBuffer scratch = ByteBuffer.allocateDirect(18).order(ByteOrder.LITTLE_ENDIAN);
+    		assertEquals(RingBuffers.intBytes(seats), RingBuffers.writeInts(channel, seats, scratch));
+    		RingBuffers.write(channel, rings, (b, e) -> b.putInt(e), ByteBuffer.allocate(128));
+    	}
+    	try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)){
+    		List<IntRing> readSeats = RingBuffers.readInts(channel);
+    		for (int n = 0; n < seats.size(); n++){
+    			assertEquals(seats.get(n).toString(), readSeats.get(n).toString());
+    		}
+    		read = RingBuffers.read(channel, b -> b.getInt());
+    		for (int i = 0; i < rings.size(); i++){
+    			assertEquals(rings.get(i).toList(), read.get(i).toList());
+    		}
+    		assertEquals(channel.size(), channel.position());
+    	}
+    	
+    	// the smallest scratch buffers allowed
+    	try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+    		assertEquals(RingBuffers.intBytes(seats), RingBuffers.writeInts(channel, seats, ByteBuffer.allocate(4)));
+    		try {
+    			RingBuffers.write(channel, rings, (b, e) -> b.putInt(e), ByteBuffer.allocate(4));
+    			fail();
+    		} catch (IllegalArgumentException e){
+    			// expected
+    		}
+    	}
+    	try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)){
+    		List<IntRing> readSeats = RingBuffers.readInts(channel);
+    		for (int n = 0; n < seats.size(); n++){
+    			assertEquals(seats.get(n).toString(), readSeats.get(n).toString());
+    		}
+    		// rings read in bulk grow as usual
+    		IntRing last = readSeats.get(98);
+    		assertTrue(last.addFirst(-1));
+    		assertFalse(last.addLast(-1));
+    		assertEquals(-1, last.getFirst());
+    		assertEquals(9, last.size());
+    	}
+    	
+    	ByteBuffer repeated = ByteBuffer.allocate(32);
+    	repeated.put((byte) 0).putInt(1).putInt(3).putInt(5).putInt(6).putInt(5).flip();
+    	try {
+    		RingBuffers.readInts(repeated);
+    		fail();
+    	} catch (IllegalArgumentException e){
+    		// expected
+    	}
+    }
+    
+    public void testBulkOperations(){
+    	checkBulkOperations(new ArrayRing<Integer>());
+    	checkBulkOperations(new HashRing<Integer>());
+    	checkBulkOperations(new CircularArrayRing<Integer>());
+    	checkBulkOperations(new ConcurrentRing<Integer>());
+    }
+    
+    private void checkBulkOperations(Ring<Integer> ring){
+    	assertTrue(ring.addAll(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9)));
+    	ring.makeFirst(3);
+    	assertTrue(ring.addAll(Arrays.asList(5, 10, 11, 10, 2, 12)));
+    	assertEquals(Arrays.asList(3, 4, 5, 6, 7, 8, 9, 0, 1, 2, 10, 11, 12), ring.toList());
+    	assertFalse(ring.addAll(Arrays.asList(1, 2)));
+    	try {
+    		ring.addAll(Arrays.asList(20, null));
+    		fail();
+    	} catch (NullPointerException e){
+    		// expected
+    	}
+    	assertEquals(13, ring.size());
+    	
+    	assertTrue(ring.removeIf(e -> e % 2 == 0));
+    	assertEquals(Arrays.asList(3, 5, 7, 9, 1, 11), ring.toList());
+    	assertTrue(ring.removeAll(Arrays.asList(3, 100)));
+    	assertEquals(Integer.valueOf(5), ring.getFirst());
+    	assertEquals(Integer.valueOf(5), ring.next(11));
+    	assertTrue(ring.retainAll(Arrays.asList(9, 1, 11)));
+    	assertEquals(Arrays.asList(9, 1, 11), ring.toList());
+    	assertFalse(ring.removeIf(e -> e > 100));
+    	assertTrue(ring.retainAll(new ArrayList<Integer>()));
+    	assertTrue(ring.isEmpty());
+    	assertTrue(ring.addAll(Arrays.asList(4, 4)));
+    	assertEquals(Arrays.asList(4), ring.toList());
+    }
+    
+    public void testTombstoneRing(){
+    	checkRing(new TombstoneRing<Gamer>());
+    	checkAgainstArrayRing(new TombstoneRing<Integer>());
+    	checkBulkOperations(new TombstoneRing<Integer>());
+    	checkCursor(new TombstoneRing<Integer>());
+    	
+    	// players are eliminated as a cursor goes round the table, compacting the ring many times
+    	Random random = new Random(17);
+    	for (int game = 0; game < 20; game++){
+    		Ring<Integer> table = new TombstoneRing<Integer>();
+    		List<Integer> model = new ArrayList<Integer>();
+    		for (int i = 0; i < 200; i++){
+    			table.addLast(i);
+    			model.add(i);
+    		}
+    		RingCursor<Integer> cursor = table.cursor();
+    		int position = 0;
+    		boolean inGap = false;
+    		while (model.size() > 1){
+    			int roll = random.nextInt(10);
+    			if (roll < 3 && !inGap){
+    				// eliminate the current player
+    				assertTrue(table.remove(model.remove(position)));
+    				assertNull(cursor.current());
+    				inGap = true;
+    			} else if (roll < 6){
+    				// eliminate someone else
+    				int other = random.nextInt(model.size());
+    				if (inGap || other != position){
+    					table.remove(model.remove(other));
+    					if (other < position){
+    						position--;
+    					}
+    				}
+    			} else if (roll < 9){
+    				position = inGap ? position % model.size() : (position + 1) % model.size();
+    				assertEquals(model.get(position), cursor.advance());
+    				inGap = false;
+    			} else {
+    				position = (position + model.size() - 1) % model.size();
+    				assertEquals(model.get(position), cursor.retreat());
+    				inGap = false;
+    			}
+    			assertEquals(model, table.toList());
+    		}
+    	}
+    	
+    	// cursors left unmoved while the array is compacted and rebuilt several times
+    	Ring<Integer> ring = new TombstoneRing<Integer>();
+    	Ring<Integer> expected = new ArrayRing<Integer>();
+    	for (int i = 0; i < 100; i++){
+    		ring.addLast(i);
+    		expected.addLast(i);
+    	}
+    	RingCursor<Integer> gap = ring.cursor();
+    	RingCursor<Integer> at = ring.cursor();
+    	RingCursor<Integer> kept = ring.cursor();
+    	gap.moveTo(40);
+    	at.moveTo(41);
+    	kept.moveTo(57);
+    	for (int i : new int[] {40, 41}){
+    		ring.remove(i);
+    		expected.remove(i);
+    	}
+    	for (int i = 0; i < 100; i++){
+    		if (i < 40 || i >= 60){
+    			ring.remove(i);
+    			expected.remove(i);
+    		}
+    	}
+    	for (int i = 100; i < 140; i++){
+    		Integer first = (i % 2 == 0) ? 50 + i % 10 : 45;
+    		ring.makeFirst(first);
+    		expected.makeFirst(first);
+    		ring.addLast(i);
+    		expected.addLast(i);
+    		if (i % 3 == 0){
+    			ring.addFirst(-i);
+    			expected.addFirst(-i);
+    		}
+    	}
+    	for (int i = 100; i < 140; i++){
+    		if (i % 4 != 0){
+    			ring.remove(i);
+    			expected.remove(i);
+    		}
+    	}
+    	ring.remove(42);
+    	expected.remove(42);
+    	assertEquals(expected.toList(), ring.toList());
+    	assertNull(gap.current());
+    	assertNull(at.current());
+    	assertEquals(Integer.valueOf(57), kept.current());
+    	assertEquals(expected.previous(43), at.retreat());
+    	assertEquals(Integer.valueOf(43), gap.advance());
+    	assertEquals(expected.next(57), kept.advance());
+    	
+    	// adding at either end after makeFirst
+    	ring.clear();
+    	expected.clear();
+    	for (int i = 0; i < 500; i++){
+    		ring.addLast(i);
+    		expected.addLast(i);
+    		if (i % 7 == 0){
+    			ring.makeFirst(i / 2);
+    			expected.makeFirst(i / 2);
+    		}
+    		if (i % 5 == 0){
+    			ring.addFirst(-i - 1);
+    			expected.addFirst(-i - 1);
+    		}
+    	}
+    	assertEquals(expected.toList(), ring.toList());
+    }
+    
+    public void testCursor(){
+    	checkCursor(new ArrayRing<Integer>());
+    	checkCursor(new HashRing<Integer>());
+    	checkCursor(new CircularArrayRing<Integer>());
+    	checkCursor(new ConcurrentRing<Integer>());
+    }
+    
+    private void checkCursor(Ring<Integer> seats){
+    	RingCursor<Integer> empty = seats.cursor();
+    	assertNull(empty.current());
+    	assertNull(empty.advance());
+    	
+    	for (int i = 0; i < 6; i++){
+    		seats.addLast(i);
+    	}
+    	RingCursor<Integer> cursor = seats.cursor();
+    	assertEquals(Integer.valueOf(0), cursor.current());
+    	assertEquals(Integer.valueOf(1), cursor.advance());
+    	
+    	// removing the current element leaves the cursor in the gap
+    	seats.remove(1);
+    	assertNull(cursor.current());
+    	assertEquals(Integer.valueOf(2), cursor.advance());
+    	
+    	// removing other elements doesn't disturb it
+    	seats.remove(3);
+    	seats.remove(4);
+    	assertEquals(Integer.valueOf(2), cursor.current());
+    	assertEquals(Integer.valueOf(5), cursor.advance());
+    	assertEquals(Integer.valueOf(0), cursor.advance());
+    	assertEquals(Integer.valueOf(5), cursor.retreat());
+    	
+    	seats.remove(5);
+    	assertEquals(Integer.valueOf(2), cursor.retreat());
+    	assertEquals(Integer.valueOf(0), cursor.retreat());
+    	
+    	seats.makeFirst(2);
+    	assertEquals(Integer.valueOf(0), cursor.current());
+    	assertEquals(Integer.valueOf(2), cursor.advance());
+    	
+    	cursor.moveTo(0);
+    	assertEquals(Integer.valueOf(0), cursor.current());
+    	try {
+    		cursor.moveTo(9);
+    		fail();
+    	} catch (IllegalArgumentException e){
+    		// expected
+    	}
+    	
+    	// nor does removing elements before the gap
+    	for (int i = 10; i < 16; i++){
+    		seats.addLast(i);
+    	}
+    	cursor.moveTo(13);
+    	seats.remove(13);
+    	seats.remove(11);
+    	assertNull(cursor.current());
+    	assertEquals(Integer.valueOf(14), cursor.advance());
+    	cursor.moveTo(12);
+    	seats.remove(12);
+    	seats.remove(10);
+    	assertEquals(Integer.valueOf(0), cursor.retreat());
+    	cursor.moveTo(14);
+    	seats.remove(14);
+    	seats.remove(2);
+    	assertEquals(Integer.valueOf(0), cursor.retreat());
+    	assertEquals(Integer.valueOf(15), cursor.advance());
+    	
+    	seats.clear();
+    	assertNull(cursor.current());
+    	assertNull(cursor.advance());
+    	seats.addLast(7);
+    	assertEquals(Integer.valueOf(7), cursor.advance());
+    	assertEquals(Integer.valueOf(7), cursor.advance());
+    	assertEquals(Integer.valueOf(7), empty.advance());
+    }
+    
+    /**
+     * Applies the same random operations to {@code ring} and to an {@code ArrayRing}, checking that both always agree.
+     */
+    private void checkAgainstArrayRing(Ring<Integer> ring){
+    	Ring<Integer> expected = new ArrayRing<Integer>();
+    	Random random = new Random(7);
+    	for (int step = 0; step < 5000; step++){
+    		Integer e = random.nextInt(40);
+    		switch (random.nextInt(9)){
+    		case 7:
+    			final int m = 3 + random.nextInt(20);
+    			final int r = random.nextInt(m);
+    			assertEquals(expected.removeIf(x -> x % m == r), ring.removeIf(x -> x % m == r));
+    			break;
+    		case 8:
+    			List<Integer> more = Arrays.asList(random.nextInt(40), random.nextInt(40), e);
+    			assertEquals(expected.addAll(more), ring.addAll(more));
+    			break;
+    		case 0:
+    			assertEquals(expected.addFirst(e), ring.addFirst(e));
+    			break;
+    		case 1:
+    			assertEquals(expected.addLast(e), ring.addLast(e));
+    			break;
+    		case 2:
+    			int index = random.nextInt(expected.size() + 1);
+    			assertEquals(expected.add(index, e), ring.add(index, e));
+    			break;
+    		case 3:
+    			assertEquals(expected.remove(e), ring.remove(e));
+    			break;
+    		case 4:
+    			if (expected.contains(e)){
+    				assertEquals(expected.makeFirst(e), ring.makeFirst(e));
+    			}
+    			break;
+    		case 5:
+    			assertEquals(expected.next(e), ring.next(e));
+    			assertEquals(expected.previous(e), ring.previous(e));
+    			break;
+    		default:
+    			if (random.nextInt(50) == 0){
+    				expected.clear();
+    				ring.clear();
+    			}
+    		}
+    		assertEquals(expected.size(), ring.size());
+    		assertEquals(expected.toList(), ring.toList());
+    		assertEquals(expected.getFirst(), ring.getFirst());
+    		assertEquals(expected.getLast(), ring.getLast());
+    		assertEquals(expected.indexOf(e), ring.indexOf(e));
+    		assertEquals(expected.contains(e), ring.contains(e));
+    		if (!expected.isEmpty()){
+    			int index = random.nextInt(expected.size());
+    			assertEquals(expected.get(index), ring.get(index));
+    		}
+    	}
+    }
+    
+    /**
+     * Runs the checks of {@link #test()} against {@code players}, which must be empty.
+     */
+    private void checkRing(Ring<Gamer> players){
+    	
+    	Gamer gamer1a = new Gamer(1,"a");
+    	Gamer gamer1b = new Gamer(1,"b");
+    	Gamer gamer2a = new Gamer(2,"a");
+    	Gamer gamer2b = new Gamer(2,"b");
+    	Gamer gamer3a = new Gamer(3,"a");
+    	Gamer gamer3b = new Gamer(3,"a");
+    	
+    	assertTrue(gamer1a.equals(gamer1b));
+    	assertFalse(gamer1b.equals(gamer2b));
+    	
+    	assertTrue(players.isEmpty());
+    	
+    	players.addFirst(gamer1a);
+    	players.addFirst(gamer2a);
+    	
+    	assertTrue(players.size() == 2);
+    	assertTrue(players.contains(gamer1a));
+    	assertTrue(players.getFirst().equals(gamer2a));
+    	assertTrue(players.getLast().equals(gamer1a));
+    	assertFalse(players.getLast().equals(gamer2a));
+    	assertFalse(players.getFirst().equals(gamer1a));
+    	
+    	players.clear();
+    	assertTrue(players.isEmpty());
+    	assertTrue(players.size() == 0);
+    	
+    	players.addLast(gamer1b);
+    	players.addLast(gamer2b);
+       	assertTrue(players.getFirst().equals(gamer1b));
+    	assertTrue(players.getLast().equals(gamer2b));
+    	
+    	players.addLast(gamer3b);
+    	assertTrue(players.contains(gamer2b));
+    	assertTrue(players.indexOf(gamer1b) == 0);    	
+    	assertTrue(players.indexOf(gamer2b) == 1);    	
+       	assertTrue(players.indexOf(gamer3b) == 2);    	
+        
+    	assertTrue(players.getLast().equals(gamer3b));
+    	assertTrue(players.getFirst().equals(gamer1b));
+    	
+    	// now try to add a player that equals an existing player
+    	
+    	assertFalse(players.addLast(gamer1a));
+    	assertTrue(players.size() == 3);
+    	
+    	// change first element
+    	assertTrue(players.makeFirst(gamer2b));
+    	assertFalse(players.makeFirst(gamer2b));
+    	assertTrue(players.getFirst().equals(gamer2b));
+    	
+    	// relative positions of players didn't change, only the "first" designation
+    	assertTrue(players.indexOf(gamer2b) == 0);    	
+    	assertTrue(players.indexOf(gamer3b) == 1);    	
+       	assertTrue(players.indexOf(gamer1b) == 2);     	
+    	
+       	assertTrue(players.next(gamer2b).equals(gamer3b));
+       	assertFalse(players.next(gamer2b).equals(gamer1b));
+       	
+       	assertTrue(players.previous(gamer2b).equals(gamer1b));
+       	assertFalse(players.previous(gamer2b).equals(gamer3b));
+ 
+       	List<Gamer> myList = players.toList();
+       	
        	assertTrue(myList.get(0).equals(players.getFirst()));
        	assertTrue(myList.get(0).equals(players.get(0)));
        	assertTrue(myList.get(1).equals(players.get(1)));